@@ -0,0 +1,73 @@
+package com.github.cybellereaper.config;
+
+import com.github.cybellereaper.SyntheticCatalog;
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.mob.CustomMob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Cold parse of {@code items.yml} and {@code mobs.yml}, as done on startup and {@code /nobleitems reload} when the
+ * definition cache is stale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DefinitionLoaderBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private Path directory;
+    private File items;
+    private File mobs;
+    private DefinitionLoader loader;
+
+    @Setup
+    public void writeCatalog() throws IOException {
+        directory = Files.createTempDirectory("nobleitems-bench");
+        items = directory.resolve("items.yml").toFile();
+        mobs = directory.resolve("mobs.yml").toFile();
+        Files.writeString(items.toPath(), SyntheticCatalog.itemsYaml(size, 1L));
+        Files.writeString(mobs.toPath(), SyntheticCatalog.mobsYaml(size, size, 2L));
+        Logger logger = Logger.getLogger("bench");
+        logger.setLevel(Level.WARNING);
+        loader = new DefinitionLoader(logger);
+    }
+
+    @TearDown
+    public void deleteCatalog() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<CustomItem> loadItems() throws IOException {
+        return loader.loadItems(items);
+    }
+
+    @Benchmark
+    public List<CustomMob> loadMobs() throws IOException {
+        return loader.loadMobs(mobs);
+    }
+}
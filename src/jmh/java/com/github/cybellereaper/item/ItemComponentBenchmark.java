@@ -0,0 +1,34 @@
+package com.github.cybellereaper.item;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy {@code &} colour code conversion {@link ItemFactory} runs for each definition's name and lore when its
+ * prototype stack is compiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemComponentBenchmark {
+    private final String displayName = "&cRuby &lSword";
+    private final List<String> lore = List.of("&7Forged with Blockbench geometry", "&c+12 Damage", "&a+6 Damage &7| &a+10 Defense");
+
+    @Benchmark
+    public Component displayName() {
+        return ItemFactory.toComponent(displayName);
+    }
+
+    @Benchmark
+    public List<Component> lore() {
+        return ItemFactory.toComponentLore(lore);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.cybellereaper.registry;
+
+import com.github.cybellereaper.SyntheticCatalog;
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.item.CustomItemRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id lookups as done by {@code /nobleitems give} and {@code spawn}: exact ids in mixed case, and misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegistryLookupBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private final CustomItemRegistry registry = new CustomItemRegistry();
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    @Setup
+    public void fillRegistry() {
+        registry.replaceAll(SyntheticCatalog.items(size, 1L));
+        SplittableRandom random = new SplittableRandom(3L);
+        hits = new String[LOOKUPS];
+        misses = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String id = SyntheticCatalog.itemId(random.nextInt(size));
+            hits[i] = i % 2 == 0 ? id : id.toUpperCase();
+            misses[i] = id + "_missing";
+        }
+    }
+
+    @Benchmark
+    public Optional<CustomItem> hit() {
+        return registry.get(hits[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<CustomItem> miss() {
+        return registry.get(misses[next++ & (LOOKUPS - 1)]);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.cybellereaper.resourcepack;
+
+import com.github.cybellereaper.SyntheticCatalog;
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.item.CustomItemRegistry;
+import com.github.cybellereaper.mob.CustomMobRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Override JSON generation and whole pack builds, both from scratch and incremental with nothing changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResourcePackBuilderBenchmark {
+    @Param({"100", "10000"})
+    private int size;
+
+    private Path dataFolder;
+    private Path destination;
+    private ResourcePackBuilder builder;
+    private List<ResourcePackBuilder.OverrideEntry> overrides;
+
+    @Setup
+    public void writeAssets() throws IOException {
+        dataFolder = Files.createTempDirectory("nobleitems-bench");
+        destination = dataFolder.resolve("pack.zip");
+        List<CustomItem> items = SyntheticCatalog.items(size, 1L);
+        overrides = new ArrayList<>(items.size());
+        for (CustomItem item : items) {
+            overrides.add(new ResourcePackBuilder.OverrideEntry(item.customModelData(), item.blockbench().modelResource()));
+            if (item.blockbench().modelPath().isEmpty()) {
+                continue;
+            }
+            Path model = dataFolder.resolve(item.blockbench().modelPath());
+            Files.createDirectories(model.getParent());
+            Files.writeString(model, "{\"minecraft:geometry\":[{\"description\":{\"texture_width\":16,\"texture_height\":16},"
+                    + "\"bones\":[{\"cubes\":[{\"origin\":[0,0,0],\"size\":[4," + (1 + item.customModelData() % 12) + ",4],\"uv\":[0,0]}]}]}]}");
+            Path texture = dataFolder.resolve(item.blockbench().texturePath());
+            Files.createDirectories(texture.getParent());
+            Files.writeString(texture, "texture " + item.id());
+        }
+        CustomItemRegistry itemRegistry = new CustomItemRegistry();
+        itemRegistry.replaceAll(items);
+        Logger logger = Logger.getLogger("bench");
+        logger.setLevel(java.util.logging.Level.SEVERE);
+        builder = new ResourcePackBuilder(dataFolder, logger, itemRegistry, new CustomMobRegistry());
+    }
+
+    @TearDown
+    public void deleteAssets() throws IOException {
+        try (Stream<Path> files = Files.walk(dataFolder)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public String generateItemModelJson() {
+        return ResourcePackBuilder.generateItemModelJson("diamond_sword", overrides);
+    }
+
+    @Benchmark
+    public BuildResult incrementalBuild() throws IOException {
+        return builder.build(destination);
+    }
+
+    @Benchmark
+    public BuildResult fullBuild(Invalidation invalidation) throws IOException {
+        return builder.build(invalidation.destination);
+    }
+
+    /**
+     * Removes the previous pack and its manifest before every invocation so nothing can be reused. Converted
+     * models stay cached, as they would on a real server.
+     */
+    @State(Scope.Thread)
+    public static class Invalidation {
+        private Path destination;
+
+        @Setup(Level.Invocation)
+        public void clear(ResourcePackBuilderBenchmark benchmark) throws IOException {
+            destination = benchmark.dataFolder.resolve("full.zip");
+            Files.deleteIfExists(destination);
+            Files.deleteIfExists(benchmark.dataFolder.resolve("cache/packs/full.zip.manifest"));
+        }
+    }
+}
@@ -1,36 +1,94 @@
 package com.github.cybellereaper;
 
+import com.github.cybellereaper.combat.CombatListener;
+import com.github.cybellereaper.combat.StatCache;
 import com.github.cybellereaper.command.NobleItemsCommand;
 import com.github.cybellereaper.config.DefinitionLoader;
+import com.github.cybellereaper.config.DefinitionReloader;
+import com.github.cybellereaper.config.DefinitionWatcher;
+import com.github.cybellereaper.config.ReloadResult;
+import com.github.cybellereaper.item.CustomItem;
 import com.github.cybellereaper.item.CustomItemRegistry;
+import com.github.cybellereaper.item.ItemDistributor;
 import com.github.cybellereaper.item.ItemFactory;
+import com.github.cybellereaper.item.ItemResolver;
+import com.github.cybellereaper.item.PendingDeliveryStore;
+import com.github.cybellereaper.metrics.PrometheusExporter;
+import com.github.cybellereaper.mob.BulkSpawner;
+import com.github.cybellereaper.mob.CustomMob;
 import com.github.cybellereaper.mob.CustomMobRegistry;
 import com.github.cybellereaper.mob.MobSpawner;
+import com.github.cybellereaper.mob.MobTracker;
+import com.github.cybellereaper.registry.DefinitionDelta;
+import com.github.cybellereaper.render.ModelRenderer;
+import com.github.cybellereaper.resourcepack.BuildResult;
+import com.github.cybellereaper.resourcepack.PackBuildJob;
+import com.github.cybellereaper.resourcepack.PackPusher;
+import com.github.cybellereaper.resourcepack.PackServer;
 import com.github.cybellereaper.resourcepack.ResourcePackBuilder;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 public final class NobleItems extends JavaPlugin {
+    /**
+     * The pack served to players, relative to the data folder; builds to any other file are never published.
+     */
+    public static final String PACK_FILE = "nobleitems-resourcepack.zip";
+
     private final CustomItemRegistry itemRegistry = new CustomItemRegistry();
     private final CustomMobRegistry mobRegistry = new CustomMobRegistry();
     private DefinitionLoader definitionLoader;
+    private DefinitionReloader definitionReloader;
+    private DefinitionWatcher definitionWatcher;
     private ItemFactory itemFactory;
+    private ItemResolver itemResolver;
+    private ItemDistributor itemDistributor;
+    private MobTracker mobTracker;
     private MobSpawner mobSpawner;
+    private BulkSpawner bulkSpawner;
+    private ModelRenderer modelRenderer;
     private ResourcePackBuilder resourcePackBuilder;
+    private PackBuildJob packBuildJob;
+    private PackServer packServer;
+    private PackPusher packPusher;
+    private PrometheusExporter prometheusExporter;
 
     @Override
     public void onEnable() {
         this.definitionLoader = new DefinitionLoader(getLogger());
+        this.definitionReloader = new DefinitionReloader(this, definitionLoader, this::publishDefinitions);
         this.itemFactory = new ItemFactory(this);
-        this.mobSpawner = new MobSpawner(mobRegistry, itemRegistry, itemFactory);
+        this.itemResolver = new ItemResolver(itemRegistry, itemFactory);
+        this.mobTracker = new MobTracker(this, mobRegistry,
+                getConfig().getInt("population.per-world-cap", 0), getConfig().getInt("population.per-chunk-cap", 0));
+        this.mobSpawner = new MobSpawner(mobRegistry, itemRegistry, itemFactory, mobTracker, getLogger());
+        this.modelRenderer = new ModelRenderer(this, getConfig().getDouble("render.view-distance", 48.0),
+                getConfig().getInt("render.cull-interval-ticks", 10));
         this.resourcePackBuilder = new ResourcePackBuilder(getDataFolder().toPath(), getLogger(), itemRegistry, mobRegistry);
+        this.packBuildJob = new PackBuildJob(this, resourcePackBuilder, this::publishPack);
 
+        saveDefaultConfig();
         saveResourceIfMissing("items.yml");
         saveResourceIfMissing("mobs.yml");
         reloadDefinitions();
+        startDefinitionWatcher();
+        startItemDistributor();
+        this.bulkSpawner = new BulkSpawner(this, mobSpawner, mobRegistry, getConfig().getLong("spawning.tick-budget-millis", 5L));
+        getServer().getPluginManager().registerEvents(new CombatListener(new StatCache(itemFactory)), this);
+        getServer().getPluginManager().registerEvents(mobTracker, this);
+        startModelRenderer();
+        mobTracker.start();
+        startPackServer();
+        startPrometheusExporter();
 
         registerCommand();
         getLogger().info(() -> "NobleItems is ready with " + itemRegistry.size() + " items and " + mobRegistry.size() + " mobs.");
@@ -38,27 +96,190 @@ public final class NobleItems extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (prometheusExporter != null) {
+            prometheusExporter.shutdown();
+        }
+        if (packBuildJob != null) {
+            packBuildJob.shutdown();
+        }
+        if (packServer != null) {
+            packServer.stop();
+        }
+        if (modelRenderer != null) {
+            modelRenderer.shutdown();
+        }
+        if (bulkSpawner != null) {
+            bulkSpawner.shutdown();
+        }
+        if (itemDistributor != null) {
+            itemDistributor.shutdown();
+        }
+        if (definitionWatcher != null) {
+            definitionWatcher.close();
+        }
+        if (definitionReloader != null) {
+            definitionReloader.shutdown();
+        }
         getLogger().info("NobleItems shutting down gracefully.");
     }
 
-    public void reloadDefinitions() {
-        File itemsFile = new File(getDataFolder(), "items.yml");
-        File mobsFile = new File(getDataFolder(), "mobs.yml");
+    /**
+     * Reloads definitions synchronously. Only intended for startup; use {@link #reloadDefinitionsAsync()} while the
+     * server is running.
+     */
+    public ReloadResult reloadDefinitions() {
+        return definitionReloader.reloadNow();
+    }
+
+    /**
+     * Parses definitions in the background and publishes them on the next tick.
+     * @return a future completed on the main thread with the reload summary
+     */
+    public CompletableFuture<ReloadResult> reloadDefinitionsAsync() {
+        return definitionReloader.reloadAsync();
+    }
+
+    private void publishDefinitions(List<CustomItem> items, List<CustomMob> mobs) {
+        itemRegistry.replaceAll(items);
+        mobRegistry.replaceAll(mobs);
+        definitionsChanged();
+    }
+
+    private void applyDefinitionDelta(DefinitionDelta<CustomItem> items, DefinitionDelta<CustomMob> mobs) {
+        itemRegistry.apply(items);
+        mobRegistry.apply(mobs);
+        definitionsChanged();
+    }
+
+    /**
+     * Refreshes everything compiled from the registries. Runs on the main thread right after a publish.
+     */
+    private void definitionsChanged() {
+        itemFactory.rebuild(itemRegistry.values());
+        itemResolver.rebuild(itemRegistry.values());
+        mobSpawner.rebuild(mobRegistry.values());
+        modelRenderer.rebuild(mobRegistry.values());
+    }
+
+    /**
+     * @return the resolver mapping item stacks back to their definitions, for use by other plugins and listeners
+     */
+    public ItemResolver getItemResolver() {
+        return itemResolver;
+    }
+
+    /**
+     * @return the index of loaded custom mobs, for use by other plugins and listeners
+     */
+    public MobTracker getMobTracker() {
+        return mobTracker;
+    }
+
+    /**
+     * Serves {@code result}'s pack over HTTP, if the embedded server is enabled and it was built to {@link #PACK_FILE},
+     * and sends it to every online player on the next tick. Runs on the build thread so hashing the pack does not
+     * stall the server.
+     */
+    private void publishPack(BuildResult result) {
+        if (packServer == null || !result.destination().toAbsolutePath().normalize().equals(packFile())) {
+            return;
+        }
         try {
-            itemRegistry.replaceAll(definitionLoader.loadItems(itemsFile));
-            mobRegistry.replaceAll(definitionLoader.loadMobs(mobsFile));
-        } catch (Exception ex) {
-            getLogger().log(Level.SEVERE, "Unable to load definitions", ex);
+            byte[] sha1 = packServer.publish(result.destination());
+            if (packPusher != null) {
+                getServer().getScheduler().runTask(this, () -> packPusher.push(sha1));
+            }
+        } catch (IOException ex) {
+            getLogger().log(Level.WARNING, "Unable to publish resource pack " + result.destination(), ex);
         }
     }
 
+    private void startModelRenderer() {
+        mobTracker.onTrack(modelRenderer::attach);
+        mobTracker.onUntrack(modelRenderer::detach);
+        modelRenderer.start();
+    }
+
+    private void startPackServer() {
+        if (!getConfig().getBoolean("http.enabled", false)) {
+            return;
+        }
+        int port = getConfig().getInt("http.port", 8085);
+        PackServer server = new PackServer(new InetSocketAddress(getConfig().getString("http.bind", "0.0.0.0"), port), getLogger());
+        try {
+            server.start();
+        } catch (IOException ex) {
+            getLogger().log(Level.WARNING, "Unable to start the resource pack server on port " + port, ex);
+            return;
+        }
+        this.packServer = server;
+        String url = getConfig().getString("http.public-url", "");
+        if (url == null || url.isEmpty()) {
+            if (getServer().getIp().isEmpty()) {
+                // localhost would point every player's client at their own machine.
+                getLogger().warning("Serving the resource pack on port " + server.port() + " but not sending it to players: "
+                        + "set http.public-url, or server-ip in server.properties, to the address players download it from");
+                return;
+            }
+            url = "http://" + getServer().getIp() + ":" + server.port() + "/" + PACK_FILE;
+        }
+        this.packPusher = new PackPusher(this, url, getConfig().getBoolean("http.required", false));
+        getServer().getPluginManager().registerEvents(packPusher, this);
+
+        Path existing = packFile();
+        if (Files.isRegularFile(existing)) {
+            try {
+                packPusher.push(packServer.publish(existing));
+            } catch (IOException ex) {
+                getLogger().log(Level.WARNING, "Unable to publish resource pack " + existing, ex);
+            }
+        }
+    }
+
+    private Path packFile() {
+        return getDataFolder().toPath().resolve(PACK_FILE).toAbsolutePath().normalize();
+    }
+
+    private void startPrometheusExporter() {
+        String file = getConfig().getString("metrics.prometheus-file", "metrics.prom");
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        this.prometheusExporter = new PrometheusExporter(this, getDataFolder().toPath().resolve(file),
+                getConfig().getLong("metrics.write-interval-seconds", 15L));
+        prometheusExporter.start();
+    }
+
+    private void startDefinitionWatcher() {
+        if (!getConfig().getBoolean("definitions.watch", false)) {
+            return;
+        }
+        long debounce = getConfig().getLong("definitions.watch-debounce-millis", 500L);
+        DefinitionWatcher watcher = new DefinitionWatcher(this, definitionLoader, this::applyDefinitionDelta, debounce);
+        try {
+            watcher.start();
+            this.definitionWatcher = watcher;
+        } catch (IOException ex) {
+            watcher.close();
+            getLogger().log(Level.WARNING, "Unable to watch definition files; hot reload is disabled", ex);
+        }
+    }
+
+    private void startItemDistributor() {
+        PendingDeliveryStore deliveries = new PendingDeliveryStore(getDataFolder().toPath().resolve("deliveries.yml"), getLogger());
+        deliveries.load();
+        long budget = getConfig().getLong("delivery.tick-budget-millis", 2L);
+        this.itemDistributor = new ItemDistributor(this, itemFactory, itemRegistry, deliveries, budget);
+        getServer().getPluginManager().registerEvents(itemDistributor, this);
+    }
+
     private void registerCommand() {
         PluginCommand command = getCommand("nobleitems");
         if (command == null) {
             getLogger().severe("Failed to register /nobleitems command; check plugin.yml");
             return;
         }
-        NobleItemsCommand executor = new NobleItemsCommand(this, itemRegistry, mobRegistry, itemFactory, mobSpawner, resourcePackBuilder);
+        NobleItemsCommand executor = new NobleItemsCommand(this, itemRegistry, mobRegistry, itemDistributor, mobSpawner, bulkSpawner, packBuildJob);
         command.setExecutor(executor);
         command.setTabCompleter(executor);
     }
@@ -0,0 +1,88 @@
+package com.github.cybellereaper.combat;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import io.papermc.paper.event.entity.EntityEquipmentChangedEvent;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies custom item stats to combat: the attacker's damage is added to the hit, a critical roll multiplies it,
+ * and the victim's defense reduces it with diminishing returns.
+ */
+public final class CombatListener implements Listener {
+    private static final double CRITICAL_MULTIPLIER = 1.5;
+    private static final double DEFENSE_SCALE = 100.0;
+
+    private final StatCache stats;
+
+    public CombatListener(StatCache stats) {
+        this.stats = stats;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onDamage(EntityDamageByEntityEvent event) {
+        LivingEntity attacker = attacker(event.getDamager());
+        double damage = event.getDamage();
+        boolean changed = false;
+        if (attacker != null) {
+            double[] attack = stats.get(attacker);
+            if (attack != StatCache.NONE) {
+                damage += attack[StatCache.DAMAGE];
+                if (attack[StatCache.CRIT] > 0 && ThreadLocalRandom.current().nextDouble() < attack[StatCache.CRIT]) {
+                    damage *= CRITICAL_MULTIPLIER;
+                }
+                changed = true;
+            }
+        }
+        if (event.getEntity() instanceof LivingEntity victim) {
+            double defense = stats.get(victim)[StatCache.DEFENSE];
+            if (defense > 0) {
+                damage *= DEFENSE_SCALE / (DEFENSE_SCALE + defense);
+                changed = true;
+            }
+        }
+        if (changed) {
+            event.setDamage(Math.max(0.0, damage));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEquipmentChanged(EntityEquipmentChangedEvent event) {
+        stats.invalidate(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onHeldSlotChanged(PlayerItemHeldEvent event) {
+        // equipment change events arrive a tick later; drop the cached hand stats right away
+        stats.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        stats.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRemove(EntityRemoveFromWorldEvent event) {
+        stats.invalidate(event.getEntity());
+    }
+
+    private static LivingEntity attacker(Entity damager) {
+        if (damager instanceof LivingEntity living) {
+            return living;
+        }
+        if (damager instanceof Projectile projectile && projectile.getShooter() instanceof LivingEntity shooter) {
+            return shooter;
+        }
+        return null;
+    }
+}
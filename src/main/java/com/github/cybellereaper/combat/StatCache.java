@@ -0,0 +1,75 @@
+package com.github.cybellereaper.combat;
+
+import com.github.cybellereaper.item.ItemFactory;
+import com.github.cybellereaper.model.ItemStats;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.inventory.EntityEquipment;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-entity totals of the custom stats on every equipped item, stored as {@code [damage, defense, crit]} arrays.
+ * <p>
+ * Totals are computed on first use and kept until the entity's equipment changes, so a hit costs a map lookup and
+ * an array read instead of decoding the persistent data of six stacks. Main thread only.
+ */
+public final class StatCache {
+    public static final int DAMAGE = 0;
+    public static final int DEFENSE = 1;
+    public static final int CRIT = 2;
+    /** Shared result for entities without any custom stats; never modified. */
+    static final double[] NONE = new double[3];
+
+    private final ItemFactory itemFactory;
+    private final Map<UUID, double[]> totals = new HashMap<>();
+
+    public StatCache(ItemFactory itemFactory) {
+        this.itemFactory = itemFactory;
+    }
+
+    public double[] get(LivingEntity entity) {
+        double[] cached = totals.get(entity.getUniqueId());
+        if (cached == null) {
+            cached = aggregate(entity);
+            totals.put(entity.getUniqueId(), cached);
+        }
+        return cached;
+    }
+
+    public void invalidate(Entity entity) {
+        totals.remove(entity.getUniqueId());
+    }
+
+    public void clear() {
+        totals.clear();
+    }
+
+    private double[] aggregate(LivingEntity entity) {
+        EntityEquipment equipment = entity.getEquipment();
+        if (equipment == null) {
+            return NONE;
+        }
+        double[] sum = new double[3];
+        boolean any = add(sum, equipment.getItemInMainHand());
+        any |= add(sum, equipment.getItemInOffHand());
+        for (ItemStack armor : equipment.getArmorContents()) {
+            any |= add(sum, armor);
+        }
+        return any ? sum : NONE;
+    }
+
+    private boolean add(double[] sum, ItemStack stack) {
+        ItemStats stats = itemFactory.readStats(stack);
+        if (stats == ItemStats.EMPTY) {
+            return false;
+        }
+        sum[DAMAGE] += stats.damage();
+        sum[DEFENSE] += stats.defense();
+        sum[CRIT] += stats.critChance();
+        return true;
+    }
+}
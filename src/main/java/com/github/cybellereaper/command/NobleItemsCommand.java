@@ -3,45 +3,65 @@ package com.github.cybellereaper.command;
 import com.github.cybellereaper.NobleItems;
 import com.github.cybellereaper.item.CustomItem;
 import com.github.cybellereaper.item.CustomItemRegistry;
-import com.github.cybellereaper.item.ItemFactory;
+import com.github.cybellereaper.item.ItemDistributor;
+import com.github.cybellereaper.metrics.LatencyHistogram;
+import com.github.cybellereaper.metrics.Metrics;
+import com.github.cybellereaper.metrics.Timer;
+import com.github.cybellereaper.mob.BulkSpawner;
 import com.github.cybellereaper.mob.CustomMobRegistry;
 import com.github.cybellereaper.mob.MobSpawner;
-import com.github.cybellereaper.resourcepack.ResourcePackBuilder;
+import com.github.cybellereaper.resourcepack.BuildResult;
+import com.github.cybellereaper.resourcepack.PackBuildJob;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabExecutor;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.BoundingBox;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
 
 public final class NobleItemsCommand implements TabExecutor {
+    private static final int MAX_COMPLETIONS = 50;
+    private static final List<String> SUBCOMMANDS = List.of("reload", "give", "spawn", "buildpack", "metrics");
+    private static final List<String> SELECTORS = List.of("@a", "perm:", "group:");
+
     private final NobleItems plugin;
     private final CustomItemRegistry itemRegistry;
     private final CustomMobRegistry mobRegistry;
-    private final ItemFactory itemFactory;
+    private final ItemDistributor itemDistributor;
     private final MobSpawner mobSpawner;
-    private final ResourcePackBuilder resourcePackBuilder;
+    private final BulkSpawner bulkSpawner;
+    private final PackBuildJob packBuildJob;
 
     public NobleItemsCommand(NobleItems plugin, CustomItemRegistry itemRegistry, CustomMobRegistry mobRegistry,
-                             ItemFactory itemFactory, MobSpawner mobSpawner, ResourcePackBuilder resourcePackBuilder) {
+                             ItemDistributor itemDistributor, MobSpawner mobSpawner, BulkSpawner bulkSpawner,
+                             PackBuildJob packBuildJob) {
         this.plugin = plugin;
         this.itemRegistry = itemRegistry;
         this.mobRegistry = mobRegistry;
-        this.itemFactory = itemFactory;
+        this.itemDistributor = itemDistributor;
         this.mobSpawner = mobSpawner;
-        this.resourcePackBuilder = resourcePackBuilder;
+        this.bulkSpawner = bulkSpawner;
+        this.packBuildJob = packBuildJob;
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 0) {
-            sender.sendMessage(Component.text("Usage: /" + label + " reload|give|spawn|buildpack [filename]"));
+            sender.sendMessage(Component.text("Usage: /" + label + " reload|give|spawn|buildpack [filename|cancel]|metrics"));
             return true;
         }
         return switch (args[0].toLowerCase()) {
@@ -49,6 +69,7 @@ public final class NobleItemsCommand implements TabExecutor {
             case "give" -> handleGive(sender, args);
             case "spawn" -> handleSpawn(sender, args);
             case "buildpack" -> handleBuildPack(sender, args);
+            case "metrics" -> handleMetrics(sender);
             default -> {
                 sender.sendMessage(Component.text("Unknown subcommand."));
                 yield true;
@@ -61,8 +82,17 @@ public final class NobleItemsCommand implements TabExecutor {
             sender.sendMessage(Component.text("You lack permission to do that."));
             return true;
         }
-        plugin.reloadDefinitions();
-        sender.sendMessage(Component.text("Definitions reloaded."));
+        sender.sendMessage(Component.text("Reloading definitions..."));
+        plugin.reloadDefinitionsAsync().thenAccept(result -> {
+            if (!result.successful()) {
+                sender.sendMessage(Component.text("Reload failed with " + result.errors() + " error(s): "
+                        + result.failureMessage() + ". Previous definitions are still active."));
+                return;
+            }
+            sender.sendMessage(Component.text("Definitions reloaded: " + result.items() + " items, " + result.mobs()
+                    + " mobs in " + result.totalMillis() + " ms (items " + result.itemParseMillis() + " ms, mobs "
+                    + result.mobParseMillis() + " ms, " + result.warnings() + " warnings, " + result.errors() + " errors)."));
+        });
         return true;
     }
 
@@ -71,31 +101,64 @@ public final class NobleItemsCommand implements TabExecutor {
             sender.sendMessage(Component.text("You lack permission to do that."));
             return true;
         }
-        String fileName = args.length >= 2 ? args[1] : "nobleitems-resourcepack.zip";
+        if (args.length >= 2 && args[1].equalsIgnoreCase("cancel")) {
+            sender.sendMessage(Component.text(packBuildJob.cancel() ? "Cancelling the resource pack build..." : "No resource pack build is running."));
+            return true;
+        }
+        String fileName = args.length >= 2 ? args[1] : NobleItems.PACK_FILE;
         Path output = plugin.getDataFolder().toPath().resolve(fileName);
-        try {
-            resourcePackBuilder.build(output);
-            sender.sendMessage(Component.text("Built resource pack at " + output.toAbsolutePath()));
-        } catch (Exception ex) {
-            sender.sendMessage(Component.text("Failed to build pack: " + ex.getMessage()));
-            plugin.getLogger().log(java.util.logging.Level.SEVERE, "Failed to build resource pack", ex);
+        sender.sendMessage(Component.text(packBuildJob.isRunning()
+                ? "A resource pack build is already running; you will be told when it finishes."
+                : "Building resource pack..."));
+        packBuildJob.submit(output, itemRegistry.values(), mobRegistry.values(),
+                progress -> sender.sendMessage(Component.text("Building resource pack: " + progress.written() + "/"
+                        + progress.total() + " files, " + progress.bytes() / 1024 + " KiB written.")))
+                .whenComplete((result, error) -> {
+                    if (error instanceof CancellationException) {
+                        sender.sendMessage(Component.text("Resource pack build cancelled; the previous pack is unchanged."));
+                    } else if (error instanceof IllegalStateException) {
+                        sender.sendMessage(Component.text(error.getMessage() + "; wait for it or cancel it first."));
+                    } else if (error != null) {
+                        sender.sendMessage(Component.text("Failed to build pack: " + error.getMessage()));
+                        plugin.getLogger().log(Level.SEVERE, "Failed to build resource pack", error);
+                    } else {
+                        sender.sendMessage(Component.text("Built resource pack at " + output.toAbsolutePath() + " (" + result.entries()
+                                + " files, " + result.reused() + " unchanged, " + result.bytes() / 1024 + " KiB in " + result.millis() + " ms"
+                                + (result.savingsReport() != null ? ", textures optimised by " + result.saved() / 1024
+                                + " KiB, see " + result.savingsReport() : "")
+                                + (result.duplicates() > 0 ? ", " + result.duplicates() + " duplicate assets saving "
+                                + result.duplicateBytes() / 1024 + " KiB" : "") + ")."));
+                    }
+                });
+        return true;
+    }
+
+    private boolean handleMetrics(CommandSender sender) {
+        if (!sender.hasPermission("nobleitems.admin")) {
+            sender.sendMessage(Component.text("You lack permission to do that."));
+            return true;
+        }
+        for (Timer timer : Metrics.ALL) {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            sender.sendMessage(Component.text(timer.name() + ": " + snapshot.count() + " calls, " + timer.failures()
+                    + " failed, p50 " + millis(snapshot.quantile(0.5)) + ", p99 " + millis(snapshot.quantile(0.99))
+                    + ", max " + millis(snapshot.max())));
         }
         return true;
     }
 
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f ms", nanos / 1_000_000.0);
+    }
+
     private boolean handleGive(CommandSender sender, String[] args) {
         if (args.length < 3) {
-            sender.sendMessage(Component.text("Usage: /nobleitems give <player> <itemId> [amount]"));
-            return true;
-        }
-        Player target = Bukkit.getPlayer(args[1]);
-        if (target == null) {
-            sender.sendMessage(Component.text("Player not found."));
+            sender.sendMessage(Component.text("Usage: /nobleitems give <player|name,name|@a|perm:<node>|group:<name>> <itemId> [amount]"));
             return true;
         }
         Optional<CustomItem> itemOpt = itemRegistry.get(args[2]);
         if (itemOpt.isEmpty()) {
-            sender.sendMessage(Component.text("Unknown item id."));
+            sender.sendMessage(Component.text("Unknown item id." + didYouMean(itemRegistry.closest(args[2]))));
             return true;
         }
         int amount = 1;
@@ -106,44 +169,161 @@ public final class NobleItemsCommand implements TabExecutor {
                 sender.sendMessage(Component.text("Amount must be a number."));
                 return true;
             }
+            if (amount <= 0) {
+                sender.sendMessage(Component.text("Amount must be at least 1."));
+                return true;
+            }
+        }
+        List<String> unknown = new ArrayList<>();
+        List<UUID> recipients = resolveRecipients(args[1], unknown);
+        if (!unknown.isEmpty()) {
+            sender.sendMessage(Component.text("Player not found: " + String.join(", ", unknown)));
+        }
+        if (recipients.isEmpty()) {
+            if (unknown.isEmpty()) {
+                sender.sendMessage(Component.text("No players matched " + args[1] + "."));
+            }
+            return true;
         }
-        ItemStack stack = itemFactory.createItem(itemOpt.get(), amount);
-        target.getInventory().addItem(stack);
-        sender.sendMessage(Component.text("Gave " + amount + "x " + itemOpt.get().displayName() + " to " + target.getName()));
+        CustomItem definition = itemOpt.get();
+        int given = amount;
+        itemDistributor.give(recipients, definition, amount).thenAccept(result -> {
+            String queued = result.queued() > 0 ? " (" + result.queued() + " queued for delivery on join)" : "";
+            sender.sendMessage(Component.text("Gave " + given + "x " + definition.displayName() + " to "
+                    + recipients.size() + " player(s)" + queued));
+        });
         return true;
     }
 
+    /**
+     * Expands a give target: {@code @a}, {@code perm:<node>} and {@code group:<name>} select online players, anything
+     * else is a comma separated list of names. Known offline players are included so their items are queued.
+     */
+    private List<UUID> resolveRecipients(String selector, List<String> unknown) {
+        Set<UUID> recipients = new LinkedHashSet<>();
+        String lower = selector.toLowerCase(Locale.ROOT);
+        if (lower.equals("@a")) {
+            Bukkit.getOnlinePlayers().forEach(player -> recipients.add(player.getUniqueId()));
+        } else if (lower.startsWith("perm:") || lower.startsWith("group:")) {
+            String node = lower.startsWith("perm:") ? selector.substring(5) : "group." + selector.substring(6);
+            Bukkit.getOnlinePlayers().stream()
+                    .filter(player -> player.hasPermission(node))
+                    .forEach(player -> recipients.add(player.getUniqueId()));
+        } else {
+            for (String name : selector.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                Player online = Bukkit.getPlayerExact(name.trim());
+                OfflinePlayer offline = online != null ? online : Bukkit.getOfflinePlayerIfCached(name.trim());
+                if (offline == null) {
+                    unknown.add(name.trim());
+                } else {
+                    recipients.add(offline.getUniqueId());
+                }
+            }
+        }
+        return new ArrayList<>(recipients);
+    }
+
     private boolean handleSpawn(CommandSender sender, String[] args) {
         if (!(sender instanceof Player player)) {
             sender.sendMessage(Component.text("Only players can spawn mobs."));
             return true;
         }
         if (args.length < 2) {
-            sender.sendMessage(Component.text("Usage: /nobleitems spawn <mobId>"));
+            sender.sendMessage(Component.text("Usage: /nobleitems spawn <mobId> [count] [radius]"));
             return true;
         }
+        if (args.length >= 3) {
+            return handleBulkSpawn(player, args);
+        }
         if (mobSpawner.spawn(player, args[1]).isPresent()) {
             sender.sendMessage(Component.text("Spawned mob."));
+        } else if (mobRegistry.find(args[1]) != null) {
+            sender.sendMessage(Component.text("The mob population cap for this area is reached."));
         } else {
-            sender.sendMessage(Component.text("Unknown mob id."));
+            sender.sendMessage(Component.text("Unknown mob id." + didYouMean(mobRegistry.closest(args[1]))));
+        }
+        return true;
+    }
+
+    private boolean handleBulkSpawn(Player player, String[] args) {
+        if (mobRegistry.find(args[1]) == null) {
+            player.sendMessage(Component.text("Unknown mob id." + didYouMean(mobRegistry.closest(args[1]))));
+            return true;
+        }
+        int count;
+        double radius;
+        try {
+            count = Integer.parseInt(args[2]);
+            radius = args.length >= 4 ? Double.parseDouble(args[3]) : 8.0;
+        } catch (NumberFormatException ex) {
+            player.sendMessage(Component.text("Count and radius must be numbers."));
+            return true;
+        }
+        int maxCount = plugin.getConfig().getInt("spawning.max-bulk-count", 500);
+        if (count <= 0 || count > maxCount) {
+            player.sendMessage(Component.text("Count must be between 1 and " + maxCount + "."));
+            return true;
         }
+        double maxRadius = plugin.getConfig().getDouble("spawning.max-bulk-radius", 64.0);
+        if (!(radius >= 0 && radius <= maxRadius)) {
+            player.sendMessage(Component.text("Radius must be between 0 and " + maxRadius + "."));
+            return true;
+        }
+        Location center = player.getLocation();
+        BoundingBox region = BoundingBox.of(center, radius, 0, radius);
+        player.sendMessage(Component.text("Spawning " + count + "x " + args[1] + "..."));
+        bulkSpawner.spawn(args[1], count, player.getWorld(), region, progress ->
+                player.sendActionBar(Component.text("Spawned " + progress.spawned() + "/" + progress.total())))
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        player.sendMessage(Component.text("Bulk spawn failed: " + error.getMessage()));
+                    } else {
+                        player.sendMessage(Component.text("Spawned " + result.spawned() + " mobs in " + result.millis()
+                                + " ms" + (result.failed() > 0 ? " (" + result.failed() + " failed)" : "")
+                                + (result.capped() > 0 ? " (" + result.capped() + " over the population cap)" : "") + "."));
+                    }
+                });
         return true;
     }
 
+    private String didYouMean(String suggestion) {
+        return suggestion == null ? "" : " Did you mean " + suggestion + "?";
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        List<String> completions = new ArrayList<>();
+        String partial = args.length == 0 ? "" : args[args.length - 1];
         if (args.length == 1) {
-            completions.addAll(List.of("reload", "give", "spawn", "buildpack"));
+            return matching(SUBCOMMANDS, partial);
         } else if (args.length == 2 && args[0].equalsIgnoreCase("give")) {
-            Bukkit.getOnlinePlayers().forEach(player -> completions.add(player.getName()));
+            List<String> names = new ArrayList<>(matching(SELECTORS, partial));
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (names.size() >= MAX_COMPLETIONS) {
+                    break;
+                }
+                if (startsWithIgnoreCase(player.getName(), partial)) {
+                    names.add(player.getName());
+                }
+            }
+            return names;
         } else if (args.length == 3 && args[0].equalsIgnoreCase("give")) {
-            itemRegistry.values().forEach(item -> completions.add(item.id()));
+            return itemRegistry.complete(partial, MAX_COMPLETIONS);
         } else if (args.length == 2 && args[0].equalsIgnoreCase("spawn")) {
-            mobRegistry.values().forEach(mob -> completions.add(mob.id()));
+            return mobRegistry.complete(partial, MAX_COMPLETIONS);
         } else if (args.length == 2 && args[0].equalsIgnoreCase("buildpack")) {
-            completions.add("nobleitems-resourcepack.zip");
+            return matching(List.of(NobleItems.PACK_FILE, "cancel"), partial);
         }
-        return completions;
+        return List.of();
+    }
+
+    private static List<String> matching(List<String> options, String partial) {
+        return options.stream().filter(option -> startsWithIgnoreCase(option, partial)).toList();
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value.regionMatches(true, 0, prefix, 0, prefix.length());
     }
 }
@@ -0,0 +1,263 @@
+package com.github.cybellereaper.config;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.model.BlockbenchModel;
+import com.github.cybellereaper.model.ItemStats;
+import com.github.cybellereaper.mob.CustomMob;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.EquipmentSlot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compiled binary snapshot of the parsed definitions, keyed by a SHA-256 of every YAML source.
+ * <p>
+ * Layout: magic, format version, source hash, then length-prefixed item and mob records. A matching cache is
+ * memory-mapped and decoded directly, which skips YAML parsing entirely on an unchanged catalog.
+ */
+public final class DefinitionCache {
+    private static final int MAGIC = 0x4E494443; // "NIDC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final int HEADER_LENGTH = Integer.BYTES * 2 + HASH_LENGTH;
+
+    private final Path file;
+    private final Logger logger;
+
+    public DefinitionCache(Path file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Hashes the relative name and content of every source file, expanding shard directories the same way the
+     * loader does. Any added, removed, renamed or edited shard changes the result.
+     */
+    public byte[] fingerprint(Collection<File> itemSources, Collection<File> mobSources) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update((byte) FORMAT_VERSION);
+        hashSources(digest, "items", itemSources);
+        hashSources(digest, "mobs", mobSources);
+        return digest.digest();
+    }
+
+    /**
+     * @return the cached definitions if the cache exists, is readable and was written for the given fingerprint
+     */
+    public Optional<Snapshot> read(byte[] fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                return Optional.empty();
+            }
+            // check the header with a plain read first so a stale cache is never mapped (and stays replaceable)
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // fill header
+            }
+            header.flip();
+            if (!matches(header, fingerprint)) {
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.position(HEADER_LENGTH);
+            return Optional.of(new Snapshot(decodeItems(buffer), decodeMobs(buffer)));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+            logger.log(Level.WARNING, "Ignoring unreadable definition cache " + file, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the cache with the given definitions. Failures are logged and otherwise ignored; the cache is an
+     * optimisation only.
+     */
+    public void write(byte[] fingerprint, List<CustomItem> items, List<CustomMob> mobs) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.write(fingerprint);
+            out.writeInt(items.size());
+            for (CustomItem item : items) {
+                encode(out, item);
+            }
+            out.writeInt(mobs.size());
+            for (CustomMob mob : mobs) {
+                encode(out, mob);
+            }
+            out.flush();
+
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Unable to write definition cache " + file, ex);
+        }
+    }
+
+    private boolean matches(ByteBuffer header, byte[] fingerprint) {
+        if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            return false;
+        }
+        byte[] stored = new byte[HASH_LENGTH];
+        header.get(stored);
+        return Arrays.equals(stored, fingerprint);
+    }
+
+    private void hashSources(MessageDigest digest, String kind, Collection<File> sources) throws IOException {
+        digest.update(kind.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        for (File shard : DefinitionLoader.expand(sources)) {
+            digest.update(shard.getPath().getBytes(StandardCharsets.UTF_8));
+            if (!shard.isFile()) {
+                digest.update((byte) 0);
+                continue;
+            }
+            try (InputStream in = new DigestInputStream(Files.newInputStream(shard.toPath()), digest)) {
+                while (in.read(buffer) != -1) {
+                    // digest is updated as the stream is read
+                }
+            }
+        }
+    }
+
+    private static void encode(DataOutputStream out, CustomItem item) throws IOException {
+        writeString(out, item.id());
+        writeString(out, item.displayName());
+        writeString(out, item.material());
+        out.writeInt(item.customModelData());
+        out.writeInt(item.lore().size());
+        for (String line : item.lore()) {
+            writeString(out, line);
+        }
+        encode(out, item.blockbench());
+        out.writeDouble(item.stats().damage());
+        out.writeDouble(item.stats().defense());
+        out.writeDouble(item.stats().critChance());
+    }
+
+    private static void encode(DataOutputStream out, CustomMob mob) throws IOException {
+        writeString(out, mob.id());
+        writeString(out, mob.displayName());
+        writeString(out, mob.entityType().name());
+        out.writeDouble(mob.maxHealth());
+        out.writeDouble(mob.attackDamage());
+        encode(out, mob.blockbench());
+        out.writeInt(mob.equipment().size());
+        for (Map.Entry<EquipmentSlot, String> entry : mob.equipment().entrySet()) {
+            writeString(out, entry.getKey().name());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static void encode(DataOutputStream out, BlockbenchModel model) throws IOException {
+        writeString(out, model.modelPath());
+        writeString(out, model.texturePath());
+        out.writeDouble(model.scale());
+    }
+
+    private static List<CustomItem> decodeItems(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<CustomItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(buffer);
+            String displayName = readString(buffer);
+            String material = readString(buffer);
+            int customModelData = buffer.getInt();
+            int loreLines = buffer.getInt();
+            List<String> lore = new ArrayList<>(loreLines);
+            for (int line = 0; line < loreLines; line++) {
+                lore.add(readString(buffer));
+            }
+            BlockbenchModel model = decodeModel(buffer);
+            ItemStats stats = new ItemStats(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+            items.add(new CustomItem(id, displayName, material, customModelData, lore, model, stats));
+        }
+        return items;
+    }
+
+    private static List<CustomMob> decodeMobs(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<CustomMob> mobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(buffer);
+            String displayName = readString(buffer);
+            EntityType type = EntityType.valueOf(readString(buffer));
+            double maxHealth = buffer.getDouble();
+            double attackDamage = buffer.getDouble();
+            BlockbenchModel model = decodeModel(buffer);
+            int slots = buffer.getInt();
+            Map<EquipmentSlot, String> equipment = new EnumMap<>(EquipmentSlot.class);
+            for (int slot = 0; slot < slots; slot++) {
+                equipment.put(EquipmentSlot.valueOf(readString(buffer)), readString(buffer));
+            }
+            mobs.add(new CustomMob(id, displayName, type, maxHealth, attackDamage, model, equipment));
+        }
+        return mobs;
+    }
+
+    private static BlockbenchModel decodeModel(ByteBuffer buffer) {
+        String modelPath = readString(buffer);
+        String texturePath = readString(buffer);
+        double scale = buffer.getDouble();
+        BlockbenchModel model = new BlockbenchModel(modelPath, texturePath, scale);
+        return model.equals(BlockbenchModel.NONE) ? BlockbenchModel.NONE : model;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record Snapshot(List<CustomItem> items, List<CustomMob> mobs) { }
+}
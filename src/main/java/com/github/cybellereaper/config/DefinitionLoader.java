@@ -5,17 +5,28 @@ import com.github.cybellereaper.model.BlockbenchModel;
 import com.github.cybellereaper.model.ItemStats;
 import com.github.cybellereaper.mob.CustomMob;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.EquipmentSlot;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 public final class DefinitionLoader {
     private final Logger logger;
@@ -25,41 +36,128 @@ public final class DefinitionLoader {
     }
 
     public List<CustomItem> loadItems(File file) throws IOException {
-        YamlConfiguration config = load(file);
-        ConfigurationSection section = config.getConfigurationSection("items");
-        List<CustomItem> items = new ArrayList<>();
-        if (section == null) {
-            logger.warning("No items section found in " + file.getName());
-            return items;
+        return readItems(file).definitions();
+    }
+
+    public List<CustomMob> loadMobs(File file) throws IOException {
+        return readMobs(file).definitions();
+    }
+
+    /**
+     * Parses item definitions from a single YAML file or a directory of YAML shards.
+     * Safe to call from any thread; the loader keeps no per-load state.
+     */
+    public LoadResult<CustomItem> readItems(File source) throws IOException {
+        return readItems(List.of(source));
+    }
+
+    /**
+     * Parses item definitions from every given file and directory. Shards are parsed in parallel on the common
+     * fork/join pool; ids defined in more than one shard keep their first definition in path order.
+     */
+    public LoadResult<CustomItem> readItems(Collection<File> sources) throws IOException {
+        return read(sources, "items", "item", (id, section, warnings) -> parseItem(id, section), CustomItem::id);
+    }
+
+    /**
+     * Parses mob definitions from a single YAML file or a directory of YAML shards.
+     * Safe to call from any thread; the loader keeps no per-load state.
+     */
+    public LoadResult<CustomMob> readMobs(File source) throws IOException {
+        return readMobs(List.of(source));
+    }
+
+    /**
+     * Parses mob definitions from every given file and directory, with the same sharding rules as
+     * {@link #readItems(Collection)}.
+     */
+    public LoadResult<CustomMob> readMobs(Collection<File> sources) throws IOException {
+        return read(sources, "mobs", "mob", this::parseMob, CustomMob::id);
+    }
+
+    private <T> LoadResult<T> read(Collection<File> sources, String sectionName, String kind,
+                                   SectionParser<T> parser, Function<T, String> idFunction) throws IOException {
+        long start = System.nanoTime();
+        List<File> shards = expand(sources);
+        List<Shard<T>> parsed;
+        try {
+            parsed = shards.size() == 1
+                    ? List.of(readShard(shards.getFirst(), sectionName, parser))
+                    : ForkJoinPool.commonPool().invoke(new ShardTask<>(shards, 0, shards.size(), sectionName, parser));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
         }
-        for (String id : section.getKeys(false)) {
-            ConfigurationSection itemSection = section.getConfigurationSection(id);
-            if (itemSection == null) {
-                continue;
+
+        int warnings = 0;
+        Map<String, File> origins = new HashMap<>();
+        List<T> definitions = new ArrayList<>();
+        for (Shard<T> shard : parsed) {
+            warnings += shard.warnings();
+            for (T definition : shard.definitions()) {
+                String id = idFunction.apply(definition);
+                File previous = origins.putIfAbsent(id.toLowerCase(Locale.ROOT), shard.file());
+                if (previous != null) {
+                    warnings++;
+                    logger.warning("Duplicate " + kind + " id '" + id + "' in " + shard.file().getPath()
+                            + " (already defined in " + previous.getPath() + "); keeping the first definition.");
+                    continue;
+                }
+                definitions.add(definition);
             }
-            items.add(parseItem(id, itemSection));
         }
-        logger.info(() -> "Loaded " + items.size() + " items from " + file.getName());
-        return items;
+        String origin = shards.size() == 1 ? shards.getFirst().getName() : shards.size() + " files";
+        logger.info(() -> "Loaded " + definitions.size() + " " + sectionName + " from " + origin);
+        return new LoadResult<>(definitions, warnings, System.nanoTime() - start);
     }
 
-    public List<CustomMob> loadMobs(File file) throws IOException {
-        YamlConfiguration config = load(file);
-        ConfigurationSection section = config.getConfigurationSection("mobs");
-        List<CustomMob> mobs = new ArrayList<>();
+    private <T> Shard<T> readShard(File file, String sectionName, SectionParser<T> parser) {
+        AtomicInteger warnings = new AtomicInteger();
+        YamlConfiguration config;
+        try {
+            config = load(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ConfigurationSection section = config.getConfigurationSection(sectionName);
+        List<T> definitions = new ArrayList<>();
         if (section == null) {
-            logger.warning("No mobs section found in " + file.getName());
-            return mobs;
+            warn(warnings, "No " + sectionName + " section found in " + file.getName());
+            return new Shard<>(file, definitions, warnings.get());
         }
         for (String id : section.getKeys(false)) {
-            ConfigurationSection mobSection = section.getConfigurationSection(id);
-            if (mobSection == null) {
+            ConfigurationSection definitionSection = section.getConfigurationSection(id);
+            if (definitionSection == null) {
+                continue;
+            }
+            definitions.add(parser.parse(id, definitionSection, warnings));
+        }
+        return new Shard<>(file, definitions, warnings.get());
+    }
+
+    /**
+     * Replaces every directory with the YAML files below it, sorted by path so duplicate resolution is stable.
+     * Missing directories are skipped; missing files are reported when they are read.
+     */
+    static List<File> expand(Collection<File> sources) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (File source : sources) {
+            if (!source.isDirectory()) {
+                files.add(source);
                 continue;
             }
-            mobs.add(parseMob(id, mobSection));
+            try (Stream<Path> walk = Files.walk(source.toPath())) {
+                walk.filter(Files::isRegularFile)
+                        .filter(path -> isYaml(path.getFileName().toString()))
+                        .sorted()
+                        .forEach(path -> files.add(path.toFile()));
+            }
         }
-        logger.info(() -> "Loaded " + mobs.size() + " mobs from " + file.getName());
-        return mobs;
+        return files;
+    }
+
+    static boolean isYaml(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".yml") || name.endsWith(".yaml");
     }
 
     private CustomItem parseItem(String id, ConfigurationSection section) {
@@ -72,22 +170,22 @@ public final class DefinitionLoader {
         return new CustomItem(id, name, material, customModelData, lore, model, stats);
     }
 
-    private CustomMob parseMob(String id, ConfigurationSection section) {
+    private CustomMob parseMob(String id, ConfigurationSection section, AtomicInteger warnings) {
         String displayName = section.getString("display-name", id);
         String typeName = section.getString("type", EntityType.ZOMBIE.name());
         EntityType entityType = EntityType.fromName(typeName.toUpperCase());
         if (entityType == null) {
             entityType = EntityType.ZOMBIE;
-            logger.warning("Unknown entity type for mob " + id + ": " + typeName + ". Defaulting to ZOMBIE.");
+            warn(warnings, "Unknown entity type for mob " + id + ": " + typeName + ". Defaulting to ZOMBIE.");
         }
         double maxHealth = section.getDouble("max-health", 20.0);
         double attackDamage = section.getDouble("attack-damage", 3.0);
         BlockbenchModel blockbench = parseBlockbench(section.getConfigurationSection("blockbench"));
-        Map<EquipmentSlot, String> equipment = parseEquipment(section.getConfigurationSection("equipment"));
+        Map<EquipmentSlot, String> equipment = parseEquipment(section.getConfigurationSection("equipment"), warnings);
         return new CustomMob(id, displayName, entityType, maxHealth, attackDamage, blockbench, equipment);
     }
 
-    private Map<EquipmentSlot, String> parseEquipment(ConfigurationSection section) {
+    private Map<EquipmentSlot, String> parseEquipment(ConfigurationSection section, AtomicInteger warnings) {
         Map<EquipmentSlot, String> equipment = new HashMap<>();
         if (section == null) {
             return equipment;
@@ -100,7 +198,7 @@ public final class DefinitionLoader {
                     equipment.put(slot, itemId);
                 }
             } catch (IllegalArgumentException ex) {
-                logger.warning("Skipping unknown equipment slot '" + key + "' for mob definitions.");
+                warn(warnings, "Skipping unknown equipment slot '" + key + "' for mob definitions.");
             }
         }
         return equipment;
@@ -126,10 +224,65 @@ public final class DefinitionLoader {
         return new BlockbenchModel(modelPath, texturePath, scale);
     }
 
+    private void warn(AtomicInteger warnings, String message) {
+        warnings.incrementAndGet();
+        logger.warning(message);
+    }
+
+    @FunctionalInterface
+    private interface SectionParser<T> {
+        T parse(String id, ConfigurationSection section, AtomicInteger warnings);
+    }
+
+    private record Shard<T>(File file, List<T> definitions, int warnings) { }
+
+    /**
+     * Splits the shard list in halves until a single file remains, so large catalogs spread across all workers.
+     */
+    private final class ShardTask<T> extends RecursiveTask<List<Shard<T>>> {
+        private final List<File> files;
+        private final int from;
+        private final int to;
+        private final String sectionName;
+        private final SectionParser<T> parser;
+
+        private ShardTask(List<File> files, int from, int to, String sectionName, SectionParser<T> parser) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.sectionName = sectionName;
+            this.parser = parser;
+        }
+
+        @Override
+        protected List<Shard<T>> compute() {
+            if (to - from == 1) {
+                return List.of(readShard(files.get(from), sectionName, parser));
+            }
+            if (to == from) {
+                return List.of();
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask<T> left = new ShardTask<>(files, from, middle, sectionName, parser);
+            left.fork();
+            List<Shard<T>> right = new ShardTask<>(files, middle, to, sectionName, parser).compute();
+            List<Shard<T>> merged = new ArrayList<>(left.join());
+            merged.addAll(right);
+            return merged;
+        }
+    }
+
     private YamlConfiguration load(File file) throws IOException {
         if (!file.exists()) {
             throw new IOException("Config file does not exist: " + file.getAbsolutePath());
         }
-        return YamlConfiguration.loadConfiguration(file);
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.load(file);
+        } catch (InvalidConfigurationException ex) {
+            // surface broken YAML instead of treating it as an empty file, so a half-saved shard cannot wipe definitions
+            throw new IOException("Invalid YAML in " + file.getAbsolutePath() + ": " + ex.getMessage(), ex);
+        }
+        return config;
     }
 }
@@ -0,0 +1,224 @@
+package com.github.cybellereaper.config;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.metrics.Metrics;
+import com.github.cybellereaper.metrics.ReloadEvent;
+import com.github.cybellereaper.mob.CustomMob;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Parses item and mob definitions ({@code items.yml}, {@code mobs.yml} and their shard directories) concurrently on
+ * a background pool and hands the result to the publisher in one step. Unchanged sources are served from the compiled
+ * {@link DefinitionCache} instead of being parsed again. Asynchronous reloads publish on the next server tick, so the
+ * main thread only pays for the registry swap.
+ */
+public final class DefinitionReloader {
+    private final Plugin plugin;
+    private final DefinitionLoader loader;
+    private final DefinitionCache cache;
+    private final BiConsumer<List<CustomItem>, List<CustomMob>> publisher;
+    private final ExecutorService executor;
+    private final Executor mainThread;
+    private final AtomicReference<CompletableFuture<ReloadResult>> inFlight = new AtomicReference<>();
+
+    public DefinitionReloader(Plugin plugin, DefinitionLoader loader, BiConsumer<List<CustomItem>, List<CustomMob>> publisher) {
+        this.plugin = plugin;
+        this.loader = loader;
+        this.cache = new DefinitionCache(plugin.getDataFolder().toPath().resolve("cache/definitions.bin"), plugin.getLogger());
+        this.publisher = publisher;
+        this.executor = Executors.newFixedThreadPool(2, daemonThreads());
+        this.mainThread = task -> plugin.getServer().getScheduler().runTask(plugin, task);
+    }
+
+    /**
+     * Parses both sources in parallel and publishes them on the calling thread. Used during startup, where the
+     * registries must be filled before commands are registered.
+     */
+    public ReloadResult reloadNow() {
+        long start = System.nanoTime();
+        Parsed parsed;
+        try {
+            parsed = parse().join();
+        } catch (CompletionException ex) {
+            return failed(start, ex.getCause());
+        } catch (RuntimeException ex) {
+            return failed(start, ex);
+        }
+        return publish(parsed, start);
+    }
+
+    /**
+     * Parses both sources off the main thread and publishes them on the next tick. A reload requested while another
+     * is still running shares the running one's result.
+     * @return a future completed on the main thread once the new definitions are visible, or parsing failed
+     */
+    public CompletableFuture<ReloadResult> reloadAsync() {
+        CompletableFuture<ReloadResult> created = new CompletableFuture<>();
+        CompletableFuture<ReloadResult> existing = inFlight.compareAndExchange(null, created);
+        if (existing != null) {
+            return existing;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Parsed> parsing;
+        try {
+            parsing = parse();
+        } catch (RuntimeException ex) {
+            // e.g. the pool rejected the task during shutdown; later reloads must not share this one forever
+            inFlight.set(null);
+            created.complete(failed(start, ex));
+            return created;
+        }
+        parsing.handleAsync((parsed, error) -> {
+            if (error != null) {
+                return failed(start, error instanceof CompletionException ? error.getCause() : error);
+            }
+            return publish(parsed, start);
+        }, mainThread).whenComplete((result, error) -> {
+            inFlight.set(null);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(result);
+            }
+        });
+        return created;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Decodes the binary cache when the sources are unchanged since it was written; otherwise parses the YAML and
+     * refreshes the cache.
+     */
+    private CompletableFuture<Parsed> parse() {
+        List<File> itemSources = sources("items");
+        List<File> mobSources = sources("mobs");
+        return CompletableFuture.supplyAsync(read(() -> cache.fingerprint(itemSources, mobSources)), executor)
+                .thenCompose(fingerprint -> {
+                    long start = System.nanoTime();
+                    Optional<DefinitionCache.Snapshot> cached = cache.read(fingerprint);
+                    if (cached.isPresent()) {
+                        long elapsed = System.nanoTime() - start;
+                        plugin.getLogger().info(() -> "Loaded " + cached.get().items().size() + " items and "
+                                + cached.get().mobs().size() + " mobs from the definition cache");
+                        return CompletableFuture.completedFuture(new Parsed(
+                                new LoadResult<>(cached.get().items(), 0, elapsed),
+                                new LoadResult<>(cached.get().mobs(), 0, 0)));
+                    }
+                    CompletableFuture<LoadResult<CustomItem>> items = CompletableFuture.supplyAsync(read(() -> loader.readItems(itemSources)), executor);
+                    CompletableFuture<LoadResult<CustomMob>> mobs = CompletableFuture.supplyAsync(read(() -> loader.readMobs(mobSources)), executor);
+                    return items.thenCombine(mobs, Parsed::new).thenApply(parsed -> {
+                        cache.write(fingerprint, parsed.items().definitions(), parsed.mobs().definitions());
+                        return parsed;
+                    });
+                });
+    }
+
+    /**
+     * @return {@code <kind>.yml} followed by the {@code <kind>/} shard directory when it exists; the root file may be
+     *         left out of a shard-only layout, but is still listed without shards so its absence is reported
+     */
+    private List<File> sources(String kind) {
+        File file = new File(plugin.getDataFolder(), kind + ".yml");
+        File directory = new File(plugin.getDataFolder(), kind);
+        if (!directory.isDirectory()) {
+            return List.of(file);
+        }
+        return file.isFile() ? List.of(file, directory) : List.of(directory);
+    }
+
+    /**
+     * Hands the parsed definitions to the publisher; a publisher failure is reported like a load failure, so callers
+     * always receive a result.
+     */
+    private ReloadResult publish(Parsed parsed, long start) {
+        try {
+            publisher.accept(parsed.items().definitions(), parsed.mobs().definitions());
+        } catch (RuntimeException ex) {
+            return failed(start, ex);
+        }
+        return published(parsed, start);
+    }
+
+    private ReloadResult failed(long start, Throwable cause) {
+        plugin.getLogger().log(Level.SEVERE, "Unable to load definitions", cause);
+        ReloadEvent.emit(0, 0, false, Metrics.RELOAD.record(start, false));
+        return new ReloadResult(0, 0, 0, 0, elapsedMillis(start), 0, 1, cause);
+    }
+
+    private static ReloadResult published(Parsed parsed, long start) {
+        ReloadEvent.emit(parsed.items().definitions().size(), parsed.mobs().definitions().size(), true,
+                Metrics.RELOAD.record(start, true));
+        return parsed.toResult(start);
+    }
+
+    private static <T> Supplier<T> read(IOSupplier<T> supplier) {
+        return () -> {
+            try {
+                return supplier.get();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "NobleItems-Loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private record Parsed(LoadResult<CustomItem> items, LoadResult<CustomMob> mobs) {
+        ReloadResult toResult(long startNanos) {
+            return new ReloadResult(
+                    items.definitions().size(),
+                    mobs.definitions().size(),
+                    TimeUnit.NANOSECONDS.toMillis(items.elapsedNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(mobs.elapsedNanos()),
+                    elapsedMillis(startNanos),
+                    items.warnings() + mobs.warnings(),
+                    0,
+                    null);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.github.cybellereaper.config;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.mob.CustomMob;
+import com.github.cybellereaper.registry.DefinitionDelta;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in hot reload: watches the plugin data folder and re-parses only the definition files that changed.
+ * <p>
+ * Events are debounced so an editor's save burst results in one incremental reload. The watcher remembers which
+ * definitions every file produced, diffs the re-parsed file against that, and hands only the added, changed and
+ * removed ids to the publisher on the main thread.
+ */
+public final class DefinitionWatcher implements AutoCloseable {
+    private final Plugin plugin;
+    private final BiConsumer<DefinitionDelta<CustomItem>, DefinitionDelta<CustomMob>> publisher;
+    private final long debounceMillis;
+    private final Path root;
+    private final ScheduledExecutorService scheduler;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final FileState<CustomItem> items;
+    private final FileState<CustomMob> mobs;
+    private WatchService watchService;
+    private ScheduledFuture<?> flush;
+    private Future<?> indexing;
+
+    public DefinitionWatcher(Plugin plugin, DefinitionLoader loader,
+                             BiConsumer<DefinitionDelta<CustomItem>, DefinitionDelta<CustomMob>> publisher,
+                             long debounceMillis) {
+        this.plugin = plugin;
+        this.publisher = publisher;
+        this.debounceMillis = debounceMillis;
+        this.root = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NobleItems-Watcher-Debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.items = new FileState<>("items", CustomItem::id, file -> loader.readItems(file).definitions());
+        this.mobs = new FileState<>("mobs", CustomMob::id, file -> loader.readMobs(file).definitions());
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        register(root);
+        registerTree(root.resolve("items"));
+        registerTree(root.resolve("mobs"));
+        indexing = scheduler.submit(this::indexAll);
+        Thread pollThread = new Thread(this::poll, "NobleItems-Watcher");
+        pollThread.setDaemon(true);
+        pollThread.start();
+        plugin.getLogger().info(() -> "Watching " + root + " for definition changes.");
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // shutting down anyway
+            }
+        }
+    }
+
+    /**
+     * Blocks until the initial index of every definition file is built; changes made before that are not reported.
+     */
+    void awaitIndexed() throws InterruptedException, ExecutionException {
+        indexing.get();
+    }
+
+    private void poll() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (directory == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed) && kindOf(changed) != null) {
+                        watchNewDirectory(changed);
+                    } else if (kindOf(changed) != null) {
+                        pending.add(changed);
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+                scheduleFlush();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // watcher closed
+        }
+    }
+
+    private void watchNewDirectory(Path directory) {
+        try {
+            registerTree(directory);
+            try (Stream<Path> walk = Files.walk(directory)) {
+                walk.filter(Files::isRegularFile).forEach(pending::add);
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Unable to watch new definition directory " + directory, ex);
+        }
+    }
+
+    private synchronized void scheduleFlush() {
+        if (pending.isEmpty() || scheduler.isShutdown()) {
+            return;
+        }
+        if (flush != null) {
+            flush.cancel(false);
+        }
+        flush = scheduler.schedule(this::flush, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void indexAll() {
+        try {
+            items.index(root.resolve("items.yml"), root.resolve("items"));
+            mobs.index(root.resolve("mobs.yml"), root.resolve("mobs"));
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Unable to index definition files for hot reload", ex);
+        }
+    }
+
+    private void flush() {
+        List<Path> changed = new ArrayList<>(pending);
+        pending.removeAll(changed);
+        Set<Path> itemFiles = new HashSet<>();
+        Set<Path> mobFiles = new HashSet<>();
+        for (Path path : changed) {
+            String kind = kindOf(path);
+            if ("items".equals(kind)) {
+                itemFiles.add(path);
+            } else if ("mobs".equals(kind)) {
+                mobFiles.add(path);
+            }
+        }
+        DefinitionDelta<CustomItem> itemDelta = items.update(itemFiles);
+        DefinitionDelta<CustomMob> mobDelta = mobs.update(mobFiles);
+        if (itemDelta.isEmpty() && mobDelta.isEmpty()) {
+            return;
+        }
+        plugin.getServer().getScheduler().runTask(plugin, () -> publisher.accept(itemDelta, mobDelta));
+    }
+
+    /**
+     * @return {@code "items"} or {@code "mobs"} when the path is a definition source, otherwise {@code null}
+     */
+    private String kindOf(Path path) {
+        Path relative = root.relativize(path.toAbsolutePath().normalize());
+        if (relative.getNameCount() == 0) {
+            return null;
+        }
+        String first = relative.getName(0).toString();
+        if (relative.getNameCount() == 1) {
+            return switch (first) {
+                case "items.yml" -> "items";
+                case "mobs.yml" -> "mobs";
+                case "items", "mobs" -> first;
+                default -> null;
+            };
+        }
+        // a deleted path may have been a shard directory, so it is passed on for its tracked files to be dropped
+        boolean shard = !Files.exists(path) || Files.isDirectory(path) || DefinitionLoader.isYaml(path.getFileName().toString());
+        return shard && (first.equals("items") || first.equals("mobs")) ? first : null;
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) walk.filter(Files::isDirectory)::iterator) {
+                register(path);
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, directory);
+    }
+
+    @FunctionalInterface
+    private interface FileParser<T> {
+        List<T> parse(File file) throws IOException;
+    }
+
+    /**
+     * Definitions produced by every source file of one kind, in the loader's precedence order: the root file first,
+     * then shards by path. Only touched from the debounce thread.
+     */
+    private final class FileState<T> {
+        private final String kind;
+        private final Function<T, String> idFunction;
+        private final FileParser<T> parser;
+        private final Map<Path, List<T>> files;
+
+        private FileState(String kind, Function<T, String> idFunction, FileParser<T> parser) {
+            this.kind = kind;
+            this.idFunction = idFunction;
+            this.parser = parser;
+            Path rootFile = root.resolve(kind + ".yml");
+            this.files = new TreeMap<>(Comparator.comparing((Path path) -> !path.equals(rootFile))
+                    .thenComparing(Comparator.naturalOrder()));
+        }
+
+        void index(Path rootFile, Path shardDirectory) throws IOException {
+            List<Path> sources = new ArrayList<>();
+            if (Files.isRegularFile(rootFile)) {
+                sources.add(rootFile);
+            }
+            if (Files.isDirectory(shardDirectory)) {
+                try (Stream<Path> walk = Files.walk(shardDirectory)) {
+                    walk.filter(Files::isRegularFile)
+                            .filter(path -> DefinitionLoader.isYaml(path.getFileName().toString()))
+                            .forEach(sources::add);
+                }
+            }
+            for (Path source : sources) {
+                files.put(source, parser.parse(source.toFile()));
+            }
+        }
+
+        DefinitionDelta<T> update(Set<Path> paths) {
+            // a directory that was deleted or moved away only reports itself, not the shards it held
+            Set<Path> changed = new HashSet<>(paths);
+            for (Path path : paths) {
+                if (!Files.exists(path)) {
+                    files.keySet().stream().filter(file -> file.startsWith(path)).forEach(changed::add);
+                }
+            }
+            Map<Path, List<T>> reparsed = new HashMap<>();
+            Set<String> affected = new HashSet<>();
+            for (Path path : changed) {
+                List<T> current = List.of();
+                if (Files.isRegularFile(path)) {
+                    try {
+                        current = parser.parse(path.toFile());
+                    } catch (IOException ex) {
+                        plugin.getLogger().warning("Skipping hot reload of " + root.relativize(path) + ": " + ex.getMessage());
+                        continue;
+                    }
+                }
+                reparsed.put(path, current);
+                files.getOrDefault(path, List.of()).forEach(definition -> affected.add(key(definition)));
+                current.forEach(definition -> affected.add(key(definition)));
+            }
+            if (affected.isEmpty()) {
+                return DefinitionDelta.empty();
+            }
+
+            Map<String, T> before = effective(affected);
+            reparsed.forEach((path, definitions) -> {
+                if (definitions.isEmpty() && !Files.isRegularFile(path)) {
+                    files.remove(path);
+                } else {
+                    files.put(path, definitions);
+                }
+            });
+            Map<String, T> after = effective(affected);
+
+            List<T> upserts = new ArrayList<>();
+            Set<String> removals = new HashSet<>();
+            int added = 0;
+            for (String id : affected) {
+                T previous = before.get(id);
+                T next = after.get(id);
+                if (next == null) {
+                    if (previous != null) {
+                        removals.add(id);
+                    }
+                } else if (!Objects.equals(previous, next)) {
+                    upserts.add(next);
+                    if (previous == null) {
+                        added++;
+                    }
+                }
+            }
+            if (!upserts.isEmpty() || !removals.isEmpty()) {
+                int addedCount = added;
+                int changedCount = upserts.size() - added;
+                plugin.getLogger().info(() -> "Hot-reloaded " + kind + " from " + reparsed.size() + " file(s): "
+                        + addedCount + " added, " + changedCount + " changed, " + removals.size() + " removed.");
+            }
+            return new DefinitionDelta<>(upserts, removals);
+        }
+
+        /**
+         * Resolves which definition wins for each id, using the same first-file-wins rule as a full load.
+         */
+        private Map<String, T> effective(Set<String> ids) {
+            Map<String, T> winners = new HashMap<>();
+            for (List<T> definitions : files.values()) {
+                for (T definition : definitions) {
+                    String key = key(definition);
+                    if (ids.contains(key)) {
+                        winners.putIfAbsent(key, definition);
+                    }
+                }
+            }
+            return winners;
+        }
+
+        private String key(T definition) {
+            return idFunction.apply(definition).toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.cybellereaper.config;
+
+import java.util.List;
+
+/**
+ * Outcome of parsing one definition source.
+ * @param definitions the parsed definitions in file order
+ * @param warnings number of entries that were skipped or defaulted
+ * @param elapsedNanos wall-clock time spent reading and parsing
+ */
+public record LoadResult<T>(List<T> definitions, int warnings, long elapsedNanos) {
+    public LoadResult {
+        definitions = List.copyOf(definitions);
+    }
+}
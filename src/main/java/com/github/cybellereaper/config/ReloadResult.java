@@ -0,0 +1,35 @@
+package com.github.cybellereaper.config;
+
+/**
+ * Summary of a definition reload, handed to whoever requested it once the new definitions are live.
+ * @param items number of item definitions published
+ * @param mobs number of mob definitions published
+ * @param itemParseMillis time spent parsing item sources
+ * @param mobParseMillis time spent parsing mob sources
+ * @param totalMillis time from request to publication, including the wait for the next tick
+ * @param warnings entries that were skipped or defaulted while parsing
+ * @param errors sources that could not be loaded; nothing is published when this is non-zero
+ * @param failure the first load failure, or {@code null} on success
+ */
+public record ReloadResult(int items,
+                           int mobs,
+                           long itemParseMillis,
+                           long mobParseMillis,
+                           long totalMillis,
+                           int warnings,
+                           int errors,
+                           Throwable failure) {
+    public boolean successful() {
+        return errors == 0;
+    }
+
+    /**
+     * @return the failure's message, or its class name when it has none, or {@code null} on success
+     */
+    public String failureMessage() {
+        if (failure == null) {
+            return null;
+        }
+        return failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+    }
+}
@@ -1,27 +1,63 @@
 package com.github.cybellereaper.item;
 
+import com.github.cybellereaper.registry.DefinitionDelta;
+import com.github.cybellereaper.registry.IdIndex;
+
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Holds the loaded item definitions as an immutable snapshot. Reloads build a new snapshot off to the side and publish
+ * it with a single volatile write, so readers never observe a partially filled registry.
+ */
 public final class CustomItemRegistry {
-    private final Map<String, CustomItem> items = new HashMap<>();
+    private volatile IdIndex<CustomItem> items = IdIndex.empty();
 
     public Optional<CustomItem> get(String id) {
-        return Optional.ofNullable(items.get(id.toLowerCase()));
+        return Optional.ofNullable(items.get(id));
+    }
+
+    /**
+     * Allocation-free variant of {@link #get(String)} for hot paths.
+     * @return the definition, or {@code null} if no item has the given id
+     */
+    public CustomItem find(String id) {
+        return items.get(id);
     }
 
     public void replaceAll(Collection<CustomItem> definitions) {
-        items.clear();
-        definitions.forEach(item -> items.put(item.id().toLowerCase(), item));
+        items = IdIndex.of(definitions, CustomItem::id);
+    }
+
+    /**
+     * Publishes a copy of the current snapshot with the delta applied. Callers must not apply deltas concurrently.
+     */
+    public void apply(DefinitionDelta<CustomItem> delta) {
+        if (!delta.isEmpty()) {
+            items = items.with(delta, CustomItem::id);
+        }
+    }
+
+    /**
+     * @return up to {@code limit} item ids starting with {@code prefix}, ignoring case
+     */
+    public List<String> complete(String prefix, int limit) {
+        return items.complete(prefix, limit);
+    }
+
+    /**
+     * @return the item id closest to a mistyped one, or {@code null} if nothing is similar
+     */
+    public String closest(String id) {
+        return items.closest(id);
     }
 
     public int size() {
         return items.size();
     }
 
-    public Collection<CustomItem> values() {
+    public List<CustomItem> values() {
         return items.values();
     }
 }
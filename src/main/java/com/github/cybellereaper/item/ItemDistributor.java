@@ -0,0 +1,171 @@
+package com.github.cybellereaper.item;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out items to many players without stalling the tick.
+ * <p>
+ * A batch builds its stack once and clones it per recipient. Recipients are processed by a single repeating task
+ * that stops for the tick once its time budget is spent. Offline recipients and anything that does not fit in an
+ * inventory go to the {@link PendingDeliveryStore} and are delivered when the player next joins.
+ */
+public final class ItemDistributor implements Listener {
+    private final Plugin plugin;
+    private final ItemFactory itemFactory;
+    private final CustomItemRegistry itemRegistry;
+    private final PendingDeliveryStore store;
+    private final long tickBudgetNanos;
+    private final Queue<Batch> batches = new ArrayDeque<>();
+    private BukkitTask task;
+
+    public ItemDistributor(Plugin plugin, ItemFactory itemFactory, CustomItemRegistry itemRegistry,
+                           PendingDeliveryStore store, long tickBudgetMillis) {
+        this.plugin = plugin;
+        this.itemFactory = itemFactory;
+        this.itemRegistry = itemRegistry;
+        this.store = store;
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickBudgetMillis));
+    }
+
+    /**
+     * Queues a give for every recipient. Must be called on the main thread.
+     * @return a future completed on the main thread once every recipient was served or queued for later
+     */
+    public CompletableFuture<GiveResult> give(List<UUID> recipients, CustomItem definition, int amount) {
+        if (recipients.isEmpty()) {
+            return CompletableFuture.completedFuture(new GiveResult(0, 0));
+        }
+        Batch batch = new Batch(recipients, definition, itemFactory.createItem(definition, amount));
+        batches.add(batch);
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+        return batch.future;
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        // park whatever is left so a restart does not lose it
+        for (Batch batch : batches) {
+            for (int i = batch.next; i < batch.recipients.size(); i++) {
+                store.add(batch.recipients.get(i), batch.definition.id(), batch.prototype.getAmount());
+            }
+        }
+        batches.clear();
+        store.close();
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        Map<String, Integer> owed = store.take(player.getUniqueId());
+        if (owed.isEmpty()) {
+            return;
+        }
+        int delivered = 0;
+        for (Map.Entry<String, Integer> entry : owed.entrySet()) {
+            CustomItem definition = itemRegistry.find(entry.getKey());
+            if (definition == null) {
+                // keep it; the item may come back after a reload
+                store.add(player.getUniqueId(), entry.getKey(), entry.getValue());
+                continue;
+            }
+            int remaining = entry.getValue();
+            int maxStack = Math.max(1, itemFactory.createItem(definition, 1).getMaxStackSize());
+            while (remaining > 0) {
+                int amount = Math.min(remaining, maxStack);
+                int overflow = addToInventory(player, itemFactory.createItem(definition, amount));
+                delivered += amount - overflow;
+                remaining -= amount;
+                if (overflow > 0) {
+                    store.add(player.getUniqueId(), definition.id(), overflow + remaining);
+                    break;
+                }
+            }
+        }
+        store.saveAsync();
+        if (delivered > 0) {
+            player.sendMessage(Component.text("You received " + delivered + " item(s) that were waiting for you."));
+        }
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        boolean storeChanged = false;
+        while (!batches.isEmpty() && System.nanoTime() < deadline) {
+            Batch batch = batches.peek();
+            UUID recipient = batch.recipients.get(batch.next++);
+            Player player = plugin.getServer().getPlayer(recipient);
+            int overflow = player == null ? batch.prototype.getAmount() : addToInventory(player, batch.prototype.clone());
+            if (overflow > 0) {
+                store.add(recipient, batch.definition.id(), overflow);
+                batch.queued++;
+                storeChanged = true;
+            } else {
+                batch.delivered++;
+            }
+            if (batch.next >= batch.recipients.size()) {
+                batches.poll();
+                batch.future.complete(new GiveResult(batch.delivered, batch.queued));
+            }
+        }
+        if (storeChanged) {
+            store.saveAsync();
+        }
+        if (batches.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * @return the number of items that did not fit
+     */
+    private int addToInventory(Player player, ItemStack stack) {
+        int overflow = 0;
+        for (ItemStack leftover : player.getInventory().addItem(stack).values()) {
+            overflow += leftover.getAmount();
+        }
+        return overflow;
+    }
+
+    /**
+     * @param delivered recipients that received the full stack immediately
+     * @param queued recipients that were offline or had a full inventory and will receive the rest on join
+     */
+    public record GiveResult(int delivered, int queued) { }
+
+    private static final class Batch {
+        private final List<UUID> recipients;
+        private final CustomItem definition;
+        private final ItemStack prototype;
+        private final CompletableFuture<GiveResult> future = new CompletableFuture<>();
+        private int next;
+        private int delivered;
+        private int queued;
+
+        private Batch(List<UUID> recipients, CustomItem definition, ItemStack prototype) {
+            this.recipients = List.copyOf(recipients);
+            this.definition = definition;
+            this.prototype = prototype;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.github.cybellereaper.item;
 
+import com.github.cybellereaper.metrics.ItemCreateEvent;
+import com.github.cybellereaper.metrics.Metrics;
 import com.github.cybellereaper.model.ItemStats;
+import io.papermc.paper.persistence.PersistentDataContainerView;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Material;
@@ -13,22 +16,92 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Builds item stacks for custom item definitions.
+ * <p>
+ * Every definition in the registry is compiled into a prototype stack once per reload; {@link #createItem} then only
+ * clones the prototype and sets the amount.
+ */
 public final class ItemFactory {
     private final Plugin plugin;
+    private final NamespacedKey damageKey;
+    private final NamespacedKey defenseKey;
+    private final NamespacedKey critKey;
+    private final NamespacedKey idKey;
+    private volatile Map<CustomItem, ItemStack> prototypes = Map.of();
 
     public ItemFactory(Plugin plugin) {
         this.plugin = plugin;
+        this.damageKey = key("damage");
+        this.defenseKey = key("defense");
+        this.critKey = key("crit");
+        this.idKey = key("id");
+    }
+
+    /**
+     * @return the persistent data key holding the definition id of every stack this factory creates
+     */
+    public NamespacedKey idKey() {
+        return idKey;
+    }
+
+    /**
+     * Compiles prototypes for the given definitions and drops those of definitions no longer present. Prototypes are
+     * keyed by definition identity, so unchanged definitions from an incremental reload keep their prototype.
+     */
+    public void rebuild(Collection<CustomItem> definitions) {
+        Map<CustomItem, ItemStack> previous = prototypes;
+        Map<CustomItem, ItemStack> compiled = new IdentityHashMap<>(definitions.size() * 2);
+        for (CustomItem definition : definitions) {
+            ItemStack prototype = previous.get(definition);
+            if (prototype == null) {
+                try {
+                    prototype = compile(definition);
+                } catch (IllegalArgumentException ex) {
+                    plugin.getLogger().warning(ex.getMessage());
+                    continue;
+                }
+            }
+            compiled.put(definition, prototype);
+        }
+        prototypes = Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * Looks up a compiled prototype without building one or recording an item creation. The stack is shared and must
+     * be cloned before it is handed out.
+     * @return the prototype, or {@code null} if the definition is not in the last rebuild or could not be built
+     */
+    public ItemStack prototype(CustomItem definition) {
+        return prototypes.get(definition);
     }
 
     public ItemStack createItem(CustomItem definition, int amount) {
+        long start = System.nanoTime();
+        ItemStack prototype = prototypes.get(definition);
+        if (prototype == null) {
+            // definitions outside the current registry snapshot are built on demand
+            prototype = compile(definition);
+        }
+        ItemStack itemStack = prototype.clone();
+        itemStack.setAmount(amount);
+        ItemCreateEvent.emit(definition.id(), amount, Metrics.ITEM_CREATE.record(start, true));
+        return itemStack;
+    }
+
+    private ItemStack compile(CustomItem definition) {
         Material material = Material.matchMaterial(definition.material());
         if (material == null) {
             throw new IllegalArgumentException("Unknown material for item " + definition.id());
         }
 
-        ItemStack itemStack = new ItemStack(material, amount);
+        ItemStack itemStack = new ItemStack(material, 1);
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) {
             return itemStack;
@@ -38,27 +111,46 @@ public final class ItemFactory {
         meta.setCustomModelData(definition.customModelData());
         meta.lore(toComponentLore(definition.lore()));
         meta.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
+        meta.getPersistentDataContainer().set(idKey, PersistentDataType.STRING, definition.id());
         writeStats(meta.getPersistentDataContainer(), definition.stats());
 
         itemStack.setItemMeta(meta);
         return itemStack;
     }
 
+    /**
+     * Reads the stats written by {@link #createItem} back from a stack without copying its meta.
+     * @return the stored stats, or {@link ItemStats#EMPTY} for vanilla or empty stacks
+     */
+    public ItemStats readStats(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) {
+            return ItemStats.EMPTY;
+        }
+        PersistentDataContainerView container = stack.getPersistentDataContainer();
+        if (!container.has(damageKey, PersistentDataType.DOUBLE)) {
+            return ItemStats.EMPTY;
+        }
+        return new ItemStats(
+                container.getOrDefault(damageKey, PersistentDataType.DOUBLE, 0.0),
+                container.getOrDefault(defenseKey, PersistentDataType.DOUBLE, 0.0),
+                container.getOrDefault(critKey, PersistentDataType.DOUBLE, 0.0));
+    }
+
     private void writeStats(PersistentDataContainer container, ItemStats stats) {
-        container.set(key("damage"), PersistentDataType.DOUBLE, stats.damage());
-        container.set(key("defense"), PersistentDataType.DOUBLE, stats.defense());
-        container.set(key("crit"), PersistentDataType.DOUBLE, stats.critChance());
+        container.set(damageKey, PersistentDataType.DOUBLE, stats.damage());
+        container.set(defenseKey, PersistentDataType.DOUBLE, stats.defense());
+        container.set(critKey, PersistentDataType.DOUBLE, stats.critChance());
     }
 
     private NamespacedKey key(String value) {
         return new NamespacedKey(plugin, value);
     }
 
-    private Component toComponent(String text) {
+    static Component toComponent(String text) {
         return LegacyComponentSerializer.legacyAmpersand().deserialize(text);
     }
 
-    private List<Component> toComponentLore(List<String> lore) {
+    static List<Component> toComponentLore(List<String> lore) {
         List<Component> lines = new ArrayList<>(lore.size());
         lore.forEach(line -> lines.add(toComponent(line)));
         return lines;
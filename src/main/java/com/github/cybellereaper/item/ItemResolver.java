@@ -0,0 +1,148 @@
+package com.github.cybellereaper.item;
+
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.CustomModelData;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps an {@link ItemStack} back to its {@link CustomItem}.
+ * <p>
+ * The primary index is an open-addressing table keyed by {@code material ordinal << 32 | customModelData}, so a
+ * lookup is one hash probe on two ints. Stacks whose pair is shared by several definitions, or that carry no custom
+ * model data, fall back to the id tag {@link ItemFactory} stamps into the persistent data container.
+ * <p>
+ * The probe itself does not allocate, but reading the stack does: Paper has no allocation-free accessor for custom
+ * model data, so {@link ItemStack#getData} wraps the component and {@link CustomModelData#floats()} boxes its values
+ * on every call, and the persistent data container is a copy as well. Both reads are skipped for stacks that do not
+ * carry the component, so vanilla stacks without components resolve without allocating.
+ */
+public final class ItemResolver {
+    private final CustomItemRegistry itemRegistry;
+    private final ItemFactory itemFactory;
+    private volatile Table table = Table.EMPTY;
+
+    public ItemResolver(CustomItemRegistry itemRegistry, ItemFactory itemFactory) {
+        this.itemRegistry = itemRegistry;
+        this.itemFactory = itemFactory;
+    }
+
+    /**
+     * Rebuilds the (material, custom model data) index. Call after every registry publish.
+     */
+    public void rebuild(Collection<CustomItem> definitions) {
+        table = Table.of(definitions);
+    }
+
+    /**
+     * @return the definition the stack was created from, or {@code null} for vanilla and unknown stacks
+     */
+    public CustomItem resolve(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) {
+            return null;
+        }
+        if (stack.hasData(DataComponentTypes.CUSTOM_MODEL_DATA)) {
+            // allocates a wrapper and a boxed list; the API offers no cheaper read
+            List<Float> floats = stack.getData(DataComponentTypes.CUSTOM_MODEL_DATA).floats();
+            if (!floats.isEmpty()) {
+                CustomItem match = table.get(key(stack.getType(), (int) floats.getFirst().floatValue()));
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+        if (!stack.hasItemMeta()) {
+            return null;
+        }
+        String id = stack.getPersistentDataContainer().get(itemFactory.idKey(), PersistentDataType.STRING);
+        return id == null ? null : itemRegistry.find(id);
+    }
+
+    public boolean isCustom(ItemStack stack) {
+        return resolve(stack) != null;
+    }
+
+    private static long key(Material material, int customModelData) {
+        return ((long) material.ordinal() << 32) | (customModelData & 0xFFFFFFFFL);
+    }
+
+    private static final class Table {
+        private static final Table EMPTY = new Table(new long[1], new CustomItem[1]);
+
+        private final long[] keys;
+        private final CustomItem[] values;
+        private final int mask;
+
+        private Table(long[] keys, CustomItem[] values) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 1;
+        }
+
+        static Table of(Collection<CustomItem> definitions) {
+            int capacity = Integer.highestOneBit(Math.max(2, definitions.size() * 2 - 1)) << 1;
+            Table table = new Table(new long[capacity], new CustomItem[capacity]);
+            // pairs claimed by more than one definition are removed so those stacks resolve through their id tag
+            Set<Long> ambiguous = new HashSet<>();
+            for (CustomItem definition : definitions) {
+                Material material = Material.matchMaterial(definition.material());
+                if (material == null || definition.customModelData() <= 0) {
+                    continue;
+                }
+                long key = key(material, definition.customModelData());
+                if (!table.put(key, definition)) {
+                    ambiguous.add(key);
+                }
+            }
+            if (ambiguous.isEmpty()) {
+                return table;
+            }
+            Table filtered = new Table(new long[capacity], new CustomItem[capacity]);
+            for (int i = 0; i < table.values.length; i++) {
+                if (table.values[i] != null && !ambiguous.contains(table.keys[i])) {
+                    filtered.put(table.keys[i], table.values[i]);
+                }
+            }
+            return filtered;
+        }
+
+        /**
+         * @return {@code false} if the key was already present
+         */
+        private boolean put(long key, CustomItem value) {
+            int slot = slot(key);
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            return true;
+        }
+
+        CustomItem get(long key) {
+            int slot = slot(key);
+            CustomItem value;
+            while ((value = values[slot]) != null) {
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
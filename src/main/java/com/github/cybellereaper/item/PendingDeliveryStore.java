@@ -0,0 +1,132 @@
+package com.github.cybellereaper.item;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Items owed to players who were offline or had a full inventory when a give ran, persisted to
+ * {@code deliveries.yml}. Entries are stored as item id and amount so they are rebuilt from the current definition on
+ * delivery. Each player's entries are a list rather than a section keyed by item id, as YAML paths would split ids
+ * containing dots. Mutations happen on the main thread; file writes go to a single background writer.
+ */
+public final class PendingDeliveryStore {
+    private static final String ITEM = "item";
+    private static final String AMOUNT = "amount";
+
+    private final Path file;
+    private final Logger logger;
+    private final Map<UUID, Map<String, Integer>> pending = new HashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "NobleItems-Deliveries");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PendingDeliveryStore(Path file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    public void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.load(file.toFile());
+        } catch (IOException | InvalidConfigurationException ex) {
+            logger.log(Level.SEVERE, "Unable to read pending deliveries from " + file, ex);
+            return;
+        }
+        for (String uuid : config.getKeys(false)) {
+            UUID player;
+            try {
+                player = UUID.fromString(uuid);
+            } catch (IllegalArgumentException ex) {
+                logger.warning("Skipping pending deliveries for invalid UUID " + uuid);
+                continue;
+            }
+            for (Map<?, ?> entry : config.getMapList(uuid)) {
+                if (entry.get(ITEM) instanceof String itemId && entry.get(AMOUNT) instanceof Number amount) {
+                    add(player, itemId, amount.intValue());
+                } else {
+                    logger.warning("Skipping malformed pending delivery " + entry + " for " + uuid);
+                }
+            }
+        }
+    }
+
+    public void add(UUID player, String itemId, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+        pending.computeIfAbsent(player, key -> new LinkedHashMap<>()).merge(itemId, amount, Integer::sum);
+    }
+
+    /**
+     * Removes and returns everything owed to the player; callers re-add whatever still does not fit.
+     */
+    public Map<String, Integer> take(UUID player) {
+        Map<String, Integer> owed = pending.remove(player);
+        return owed == null ? Map.of() : owed;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Writes the current state in the background. Later saves always win because writes are serialised.
+     */
+    public void saveAsync() {
+        String contents = serialize();
+        writer.execute(() -> write(contents));
+    }
+
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        write(serialize());
+    }
+
+    private String serialize() {
+        YamlConfiguration config = new YamlConfiguration();
+        pending.forEach((player, items) -> {
+            List<Map<String, Object>> entries = new ArrayList<>(items.size());
+            items.forEach((itemId, amount) -> entries.add(Map.of(ITEM, itemId, AMOUNT, amount)));
+            config.set(player.toString(), entries);
+        });
+        return config.saveToString();
+    }
+
+    private void write(String contents) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.writeString(temp, contents);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Unable to save pending deliveries to " + file, ex);
+        }
+    }
+}
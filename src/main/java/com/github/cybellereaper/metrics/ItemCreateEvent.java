@@ -0,0 +1,39 @@
+package com.github.cybellereaper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Disabled by default because it fires for every stack handed out; enable it in a custom recording settings file.
+ */
+@Name("nobleitems.ItemCreate")
+@Label("Item Create")
+@Category("NobleItems")
+@Description("Item stack created from a definition")
+@Enabled(false)
+@StackTrace(false)
+public final class ItemCreateEvent extends Event {
+    @Label("Item")
+    String item;
+    @Label("Amount")
+    int amount;
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    public static void emit(String item, int amount, long elapsedNanos) {
+        ItemCreateEvent event = new ItemCreateEvent();
+        if (event.shouldCommit()) {
+            event.item = item;
+            event.amount = amount;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.cybellereaper.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two nanosecond buckets: bucket {@code i} counts durations below
+ * {@code 2^i} ns and at least {@code 2^(i-1)} ns. Recording is a few {@link LongAdder} increments, so it is cheap
+ * enough for per-item paths; quantiles are accurate to within a factor of two.
+ */
+public final class LatencyHistogram {
+    static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        buckets[bucket(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, count.sum(), sum.sum(), max.get());
+    }
+
+    static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @return the exclusive upper bound of bucket {@code i} in nanoseconds
+     */
+    static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * A point-in-time copy. Taken without locking, so the totals may be a few records ahead of the buckets.
+     * @param buckets per-bucket counts
+     * @param sum total recorded nanoseconds
+     * @param max longest recorded duration in nanoseconds
+     */
+    public record Snapshot(long[] buckets, long count, long sum, long max) {
+        /**
+         * @param quantile between 0 and 1
+         * @return the upper bound of the bucket holding the quantile, capped at the maximum seen, or 0 if empty
+         */
+        public long quantile(double quantile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
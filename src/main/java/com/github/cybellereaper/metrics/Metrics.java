@@ -0,0 +1,18 @@
+package com.github.cybellereaper.metrics;
+
+import java.util.List;
+
+/**
+ * The plugin's instrumented operations. Timers are process-wide so hot paths record without any lookup.
+ */
+public final class Metrics {
+    public static final Timer RELOAD = new Timer("reload", "Definition reloads, from request to publication");
+    public static final Timer ITEM_CREATE = new Timer("item_create", "Item stacks created from definitions");
+    public static final Timer SPAWN = new Timer("spawn", "Custom mob spawn attempts; failures were refused by the population cap");
+    public static final Timer PACK_BUILD = new Timer("pack_build", "Resource pack builds");
+
+    public static final List<Timer> ALL = List.of(RELOAD, ITEM_CREATE, SPAWN, PACK_BUILD);
+
+    private Metrics() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.cybellereaper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("nobleitems.PackBuild")
+@Label("Resource Pack Build")
+@Category("NobleItems")
+@Description("Resource pack zip written")
+@StackTrace(false)
+public final class PackBuildEvent extends Event {
+    @Label("Entries")
+    int entries;
+    @Label("Reused Entries")
+    int reused;
+    @Label("Size")
+    @DataAmount
+    long bytes;
+    @Label("Succeeded")
+    boolean succeeded;
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    public static void emit(int entries, int reused, long bytes, boolean succeeded, long elapsedNanos) {
+        PackBuildEvent event = new PackBuildEvent();
+        if (event.shouldCommit()) {
+            event.entries = entries;
+            event.reused = reused;
+            event.bytes = bytes;
+            event.succeeded = succeeded;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+}
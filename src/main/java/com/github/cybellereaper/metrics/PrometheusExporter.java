@@ -0,0 +1,101 @@
+package com.github.cybellereaper.metrics;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Periodically writes every {@link Metrics} timer to a file in the Prometheus text exposition format, for the node
+ * exporter's textfile collector or any scraper that can read a file. Writes run off the main thread and replace the
+ * file atomically, so readers never see a partial file.
+ */
+public final class PrometheusExporter {
+    /** Buckets below 2^10 ns (about 1 microsecond) and above 2^40 ns (about 18 minutes) are folded into their neighbours. */
+    private static final int FIRST_BUCKET = 10;
+    private static final int LAST_BUCKET = 40;
+
+    private final Plugin plugin;
+    private final Path file;
+    private final long intervalTicks;
+    private BukkitTask task;
+    private boolean warned;
+
+    public PrometheusExporter(Plugin plugin, Path file, long intervalSeconds) {
+        this.plugin = plugin;
+        this.file = file;
+        this.intervalTicks = Math.max(1L, intervalSeconds) * 20L;
+    }
+
+    public void start() {
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::write, intervalTicks, intervalTicks);
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        write();
+    }
+
+    private synchronized void write() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temp, format(Metrics.ALL), StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            warned = false;
+        } catch (IOException ex) {
+            if (!warned) {
+                warned = true;
+                plugin.getLogger().log(Level.WARNING, "Unable to write metrics to " + file, ex);
+            }
+        }
+    }
+
+    /**
+     * @return a histogram of seconds and a failure counter per timer, in the text exposition format
+     */
+    public static String format(List<Timer> timers) {
+        StringBuilder out = new StringBuilder(4096);
+        for (Timer timer : timers) {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            String name = "nobleitems_" + timer.name() + "_seconds";
+            out.append("# HELP ").append(name).append(' ').append(timer.help()).append('\n');
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long cumulative = 0;
+            long[] buckets = snapshot.buckets();
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i];
+                if (i >= FIRST_BUCKET && i <= LAST_BUCKET) {
+                    out.append(name).append("_bucket{le=\"").append(seconds(LatencyHistogram.upperBound(i)))
+                            .append("\"} ").append(cumulative).append('\n');
+                }
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append(name).append("_sum ").append(seconds(snapshot.sum())).append('\n');
+            out.append(name).append("_count ").append(cumulative).append('\n');
+
+            String failures = "nobleitems_" + timer.name() + "_failures_total";
+            out.append("# TYPE ").append(failures).append(" counter\n");
+            out.append(failures).append(' ').append(timer.failures()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+}
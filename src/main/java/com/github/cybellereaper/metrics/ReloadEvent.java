@@ -0,0 +1,37 @@
+package com.github.cybellereaper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("nobleitems.Reload")
+@Label("Definition Reload")
+@Category("NobleItems")
+@Description("Items and mobs parsed and published")
+@StackTrace(false)
+public final class ReloadEvent extends Event {
+    @Label("Items")
+    int items;
+    @Label("Mobs")
+    int mobs;
+    @Label("Succeeded")
+    boolean succeeded;
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    public static void emit(int items, int mobs, boolean succeeded, long elapsedNanos) {
+        ReloadEvent event = new ReloadEvent();
+        if (event.shouldCommit()) {
+            event.items = items;
+            event.mobs = mobs;
+            event.succeeded = succeeded;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.cybellereaper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("nobleitems.Spawn")
+@Label("Mob Spawn")
+@Category("NobleItems")
+@Description("Custom mob spawn attempt")
+@StackTrace(false)
+public final class SpawnEvent extends Event {
+    @Label("Mob")
+    String mob;
+    @Label("Spawned")
+    @Description("False when the population cap refused the spawn")
+    boolean spawned;
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    public static void emit(String mob, boolean spawned, long elapsedNanos) {
+        SpawnEvent event = new SpawnEvent();
+        if (event.shouldCommit()) {
+            event.mob = mob;
+            event.spawned = spawned;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.cybellereaper.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts for one instrumented operation.
+ */
+public final class Timer {
+    private final String name;
+    private final String help;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param name metric name suffix, e.g. {@code reload} for {@code nobleitems_reload_seconds}
+     * @param help one-line description used in the Prometheus output
+     */
+    public Timer(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * Records an operation that started at {@code startNanos}, a {@link System#nanoTime()} reading.
+     * @return the elapsed nanoseconds, for callers that also emit a flight recorder event
+     */
+    public long record(long startNanos, boolean succeeded) {
+        long elapsed = System.nanoTime() - startNanos;
+        latency.record(elapsed);
+        if (!succeeded) {
+            failures.increment();
+        }
+        return elapsed;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String help() {
+        return help;
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public LatencyHistogram.Snapshot snapshot() {
+        return latency.snapshot();
+    }
+}
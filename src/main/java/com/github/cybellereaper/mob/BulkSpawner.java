@@ -0,0 +1,248 @@
+package com.github.cybellereaper.mob;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.BoundingBox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Spawns large numbers of custom mobs without single-tick spikes.
+ * <p>
+ * A request first loads every target chunk asynchronously and holds it with a plugin chunk ticket. It is then
+ * queued for a single repeating task that spawns until the per-tick time budget is spent, reports progress once per
+ * tick, and releases the chunks when the request completes. Tickets are counted per chunk, so overlapping requests
+ * share one ticket and a chunk stays loaded until the last request using it completes.
+ */
+public final class BulkSpawner {
+    private final Plugin plugin;
+    private final MobSpawner mobSpawner;
+    private final CustomMobRegistry mobRegistry;
+    private final long tickBudgetNanos;
+    private final Queue<Job> jobs = new ArrayDeque<>();
+    private final Map<ChunkPosition, Integer> tickets = new HashMap<>();
+    private BukkitTask task;
+
+    public BulkSpawner(Plugin plugin, MobSpawner mobSpawner, CustomMobRegistry mobRegistry, long tickBudgetMillis) {
+        this.plugin = plugin;
+        this.mobSpawner = mobSpawner;
+        this.mobRegistry = mobRegistry;
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickBudgetMillis));
+    }
+
+    /**
+     * Spawns {@code count} mobs spread round-robin over the given locations. Must be called on the main thread.
+     * @param progress called on the main thread after every tick that spawned something; may be {@code null}
+     * @return a future completed on the main thread when every spawn was attempted
+     */
+    public CompletableFuture<Result> spawn(String mobId, int count, List<Location> locations, Consumer<Progress> progress) {
+        CustomMob mob = mobRegistry.find(mobId);
+        if (mob == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown mob id " + mobId));
+        }
+        if (count <= 0 || locations.isEmpty()) {
+            return CompletableFuture.completedFuture(new Result(0, 0, 0, 0));
+        }
+        List<Location> targets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            targets.add(locations.get(i % locations.size()).clone());
+        }
+        return submit(mob, targets, progress, false);
+    }
+
+    /**
+     * Spawns {@code count} mobs at random columns inside the region, each placed on the highest block of its column.
+     */
+    public CompletableFuture<Result> spawn(String mobId, int count, World world, BoundingBox region, Consumer<Progress> progress) {
+        CustomMob mob = mobRegistry.find(mobId);
+        if (mob == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown mob id " + mobId));
+        }
+        if (count <= 0) {
+            return CompletableFuture.completedFuture(new Result(0, 0, 0, 0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Location> targets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = region.getWidthX() > 0 ? random.nextDouble(region.getMinX(), region.getMaxX()) : region.getMinX();
+            double z = region.getWidthZ() > 0 ? random.nextDouble(region.getMinZ(), region.getMaxZ()) : region.getMinZ();
+            targets.add(new Location(world, x, region.getMinY(), z));
+        }
+        return submit(mob, targets, progress, true);
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Job job : jobs) {
+            release(job);
+            job.future.complete(job.result());
+        }
+        jobs.clear();
+    }
+
+    private CompletableFuture<Result> submit(CustomMob mob, List<Location> targets, Consumer<Progress> progress, boolean snapToSurface) {
+        Job job = new Job(mob, targets, progress, snapToSurface);
+        Set<ChunkPosition> chunks = new HashSet<>();
+        for (Location target : targets) {
+            chunks.add(new ChunkPosition(target.getWorld(), target.getBlockX() >> 4, target.getBlockZ() >> 4));
+        }
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>(chunks.size());
+        for (ChunkPosition chunk : chunks) {
+            loads.add(chunk.world().getChunkAtAsync(chunk.x(), chunk.z()));
+        }
+        CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) ->
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.WARNING, "Unable to load chunks for bulk spawn of " + mob.id(), error);
+                        job.future.completeExceptionally(error);
+                        return;
+                    }
+                    for (CompletableFuture<Chunk> load : loads) {
+                        acquire(job, load.join());
+                    }
+                    jobs.add(job);
+                    if (task == null) {
+                        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 0L, 1L);
+                    }
+                }));
+        return job.future;
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        while (!jobs.isEmpty() && System.nanoTime() < deadline) {
+            Job job = jobs.peek();
+            Location target = job.targets.get(job.next++);
+            try {
+                if (job.snapToSurface) {
+                    target.setY(target.getWorld().getHighestBlockYAt(target.getBlockX(), target.getBlockZ()) + 1);
+                }
+                if (mobSpawner.spawn(target, job.mob).isPresent()) {
+                    job.spawned++;
+                } else {
+                    job.capped++;
+                }
+            } catch (RuntimeException ex) {
+                job.failed++;
+                if (job.failed == 1) {
+                    plugin.getLogger().log(Level.WARNING, "Bulk spawn of " + job.mob.id() + " failed at " + target, ex);
+                }
+            }
+            job.dirty = true;
+            if (job.next >= job.targets.size()) {
+                jobs.poll();
+                job.report();
+                release(job);
+                job.future.complete(job.result());
+            }
+        }
+        for (Job job : jobs) {
+            job.report();
+        }
+        if (jobs.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Holds the chunk for the job. Only tickets this spawner added are counted; a chunk the plugin already holds for
+     * another reason is left to whoever holds it.
+     */
+    private void acquire(Job job, Chunk chunk) {
+        ChunkPosition position = new ChunkPosition(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        Integer holders = tickets.get(position);
+        if (holders != null) {
+            tickets.put(position, holders + 1);
+            job.tickets.add(position);
+        } else if (chunk.addPluginChunkTicket(plugin)) {
+            tickets.put(position, 1);
+            job.tickets.add(position);
+        }
+    }
+
+    /**
+     * Drops the job's hold on its chunks and removes each ticket once no other job holds it.
+     */
+    private void release(Job job) {
+        for (ChunkPosition position : job.tickets) {
+            int holders = tickets.get(position) - 1;
+            if (holders == 0) {
+                tickets.remove(position);
+                position.world().removePluginChunkTicket(position.x(), position.z(), plugin);
+            } else {
+                tickets.put(position, holders);
+            }
+        }
+        job.tickets.clear();
+    }
+
+    /**
+     * @param spawned entities spawned so far
+     * @param failed spawn attempts that threw
+     * @param capped spawns refused by a population cap
+     * @param total spawns requested
+     */
+    public record Progress(int spawned, int failed, int capped, int total) { }
+
+    /**
+     * @param spawned entities that were spawned
+     * @param failed spawn attempts that threw
+     * @param capped spawns refused by a population cap
+     * @param millis time from chunk loading to completion
+     */
+    public record Result(int spawned, int failed, int capped, long millis) { }
+
+    private record ChunkPosition(World world, int x, int z) { }
+
+    private static final class Job {
+        private final CustomMob mob;
+        private final List<Location> targets;
+        private final Consumer<Progress> progress;
+        private final boolean snapToSurface;
+        private final List<ChunkPosition> tickets = new ArrayList<>();
+        private final CompletableFuture<Result> future = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+        private int next;
+        private int spawned;
+        private int failed;
+        private int capped;
+        private boolean dirty;
+
+        private Job(CustomMob mob, List<Location> targets, Consumer<Progress> progress, boolean snapToSurface) {
+            this.mob = mob;
+            this.targets = targets;
+            this.progress = progress;
+            this.snapToSurface = snapToSurface;
+        }
+
+        void report() {
+            if (dirty && progress != null) {
+                progress.accept(new Progress(spawned, failed, capped, targets.size()));
+            }
+            dirty = false;
+        }
+
+        Result result() {
+            return new Result(spawned, failed, capped, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+}
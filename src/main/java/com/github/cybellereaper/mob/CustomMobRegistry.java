@@ -1,27 +1,62 @@
 package com.github.cybellereaper.mob;
 
+import com.github.cybellereaper.registry.DefinitionDelta;
+import com.github.cybellereaper.registry.IdIndex;
+
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Holds the loaded mob definitions as an immutable snapshot published with a single volatile write.
+ */
 public final class CustomMobRegistry {
-    private final Map<String, CustomMob> mobs = new HashMap<>();
+    private volatile IdIndex<CustomMob> mobs = IdIndex.empty();
 
     public Optional<CustomMob> get(String id) {
-        return Optional.ofNullable(mobs.get(id.toLowerCase()));
+        return Optional.ofNullable(mobs.get(id));
+    }
+
+    /**
+     * Allocation-free variant of {@link #get(String)} for hot paths.
+     * @return the definition, or {@code null} if no mob has the given id
+     */
+    public CustomMob find(String id) {
+        return mobs.get(id);
     }
 
     public void replaceAll(Collection<CustomMob> definitions) {
-        mobs.clear();
-        definitions.forEach(mob -> mobs.put(mob.id().toLowerCase(), mob));
+        mobs = IdIndex.of(definitions, CustomMob::id);
+    }
+
+    /**
+     * Publishes a copy of the current snapshot with the delta applied. Callers must not apply deltas concurrently.
+     */
+    public void apply(DefinitionDelta<CustomMob> delta) {
+        if (!delta.isEmpty()) {
+            mobs = mobs.with(delta, CustomMob::id);
+        }
+    }
+
+    /**
+     * @return up to {@code limit} mob ids starting with {@code prefix}, ignoring case
+     */
+    public List<String> complete(String prefix, int limit) {
+        return mobs.complete(prefix, limit);
+    }
+
+    /**
+     * @return the mob id closest to a mistyped one, or {@code null} if nothing is similar
+     */
+    public String closest(String id) {
+        return mobs.closest(id);
     }
 
     public int size() {
         return mobs.size();
     }
 
-    public Collection<CustomMob> values() {
+    public List<CustomMob> values() {
         return mobs.values();
     }
 }
@@ -3,71 +3,154 @@ package com.github.cybellereaper.mob;
 import com.github.cybellereaper.item.CustomItem;
 import com.github.cybellereaper.item.CustomItemRegistry;
 import com.github.cybellereaper.item.ItemFactory;
+import com.github.cybellereaper.metrics.Metrics;
+import com.github.cybellereaper.metrics.SpawnEvent;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.EntityEquipment;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.logging.Logger;
 
+/**
+ * Spawns custom mobs from precompiled {@link SpawnPlan}s, so a spawn only clones ready equipment stacks. Every
+ * spawn is checked against and registered with the {@link MobTracker} population caps.
+ */
 public final class MobSpawner {
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+
     private final CustomMobRegistry mobRegistry;
     private final CustomItemRegistry itemRegistry;
     private final ItemFactory itemFactory;
+    private final MobTracker mobTracker;
+    private final Logger logger;
+    private volatile Map<CustomMob, SpawnPlan> plans = Map.of();
 
-    public MobSpawner(CustomMobRegistry mobRegistry, CustomItemRegistry itemRegistry, ItemFactory itemFactory) {
+    public MobSpawner(CustomMobRegistry mobRegistry, CustomItemRegistry itemRegistry, ItemFactory itemFactory,
+                      MobTracker mobTracker, Logger logger) {
         this.mobRegistry = mobRegistry;
         this.itemRegistry = itemRegistry;
         this.itemFactory = itemFactory;
+        this.mobTracker = mobTracker;
+        this.logger = logger;
+    }
+
+    /**
+     * Compiles a spawn plan for every mob and reports equipment that references unknown items or items whose
+     * prototype could not be built. Call after every registry publish, once item prototypes are rebuilt.
+     */
+    public void rebuild(Collection<CustomMob> definitions) {
+        Map<CustomMob, SpawnPlan> compiled = new IdentityHashMap<>(definitions.size() * 2);
+        int dangling = 0;
+        for (CustomMob mob : definitions) {
+            for (Map.Entry<EquipmentSlot, String> entry : mob.equipment().entrySet()) {
+                CustomItem definition = itemRegistry.find(entry.getValue());
+                if (definition == null) {
+                    dangling++;
+                    logger.warning("Mob " + mob.id() + " equips unknown item '" + entry.getValue() + "' in slot "
+                            + entry.getKey().name().toLowerCase() + "; the slot will stay empty.");
+                } else if (itemFactory.prototype(definition) == null) {
+                    dangling++;
+                    logger.warning("Mob " + mob.id() + " equips item '" + entry.getValue() + "' in slot "
+                            + entry.getKey().name().toLowerCase() + ", which could not be built; the slot will stay empty.");
+                }
+            }
+            compiled.put(mob, compile(mob));
+        }
+        plans = Collections.unmodifiableMap(compiled);
+        if (dangling > 0) {
+            int count = dangling;
+            logger.warning(() -> count + " mob equipment reference(s) point at unknown or unbuildable items.");
+        }
     }
 
     public Optional<LivingEntity> spawn(Player player, String id) {
-        Optional<CustomMob> mobOpt = mobRegistry.get(id);
-        if (mobOpt.isEmpty()) {
+        CustomMob mob = mobRegistry.find(id);
+        if (mob == null) {
             return Optional.empty();
         }
-        CustomMob mob = mobOpt.get();
-        World world = player.getWorld();
         Location spawnLocation = player.getLocation().add(player.getLocation().getDirection()).add(0, 0, 1);
-        LivingEntity entity = (LivingEntity) world.spawnEntity(spawnLocation, mob.entityType());
+        return spawn(spawnLocation, mob);
+    }
+
+    /**
+     * Spawns a configured mob at the given location. The location's chunk must be loaded.
+     * @return the spawned entity, or empty if the world or chunk population cap is reached
+     */
+    public Optional<LivingEntity> spawn(Location location, CustomMob mob) {
+        long start = System.nanoTime();
+        if (!mobTracker.hasCapacity(location)) {
+            SpawnEvent.emit(mob.id(), false, Metrics.SPAWN.record(start, false));
+            return Optional.empty();
+        }
+        SpawnPlan plan = plans.get(mob);
+        if (plan == null) {
+            // definitions outside the current registry snapshot are compiled on demand
+            plan = compile(mob);
+        }
+        World world = location.getWorld();
+        LivingEntity entity = (LivingEntity) world.spawnEntity(location, mob.entityType());
 
-        entity.customName(Component.text(mob.displayName()));
+        entity.customName(plan.name());
         entity.setCustomNameVisible(true);
-        applyAttributes(entity, mob);
-        equip(entity, mob.equipment());
+        applyAttributes(entity, plan);
+        equip(entity, plan);
+        mobTracker.track(entity, mob);
+        SpawnEvent.emit(mob.id(), true, Metrics.SPAWN.record(start, true));
         return Optional.of(entity);
     }
 
-    private void applyAttributes(LivingEntity entity, CustomMob mob) {
+    /**
+     * Resolves equipment to the item prototypes already built; slots whose item is unknown or unbuildable stay empty.
+     */
+    private SpawnPlan compile(CustomMob mob) {
+        ItemStack[] equipment = new ItemStack[SLOTS.length];
+        mob.equipment().forEach((slot, itemId) -> {
+            CustomItem definition = itemRegistry.find(itemId);
+            if (definition != null) {
+                // SpawnPlan clones on use, so the shared prototype can be held as is
+                equipment[slot.ordinal()] = itemFactory.prototype(definition);
+            }
+        });
+        return new SpawnPlan(mob, Component.text(mob.displayName()), equipment);
+    }
+
+    private void applyAttributes(LivingEntity entity, SpawnPlan plan) {
         AttributeInstance maxHealth = entity.getAttribute(Attribute.MAX_HEALTH);
         if (maxHealth != null) {
-            maxHealth.setBaseValue(mob.maxHealth());
-            entity.setHealth(mob.maxHealth());
+            maxHealth.setBaseValue(plan.maxHealth());
+            entity.setHealth(plan.maxHealth());
         }
         AttributeInstance attack = entity.getAttribute(Attribute.ATTACK_DAMAGE);
         if (attack != null) {
-            attack.setBaseValue(mob.attackDamage());
+            attack.setBaseValue(plan.attackDamage());
         }
     }
 
-    private void equip(LivingEntity entity, Map<EquipmentSlot, String> equipment) {
-        if (equipment.isEmpty()) {
+    private void equip(LivingEntity entity, SpawnPlan plan) {
+        if (!plan.hasEquipment()) {
             return;
         }
         EntityEquipment gear = entity.getEquipment();
         if (gear == null) {
             return;
         }
-        equipment.forEach((slot, itemId) -> itemRegistry.get(itemId).ifPresent(definition -> {
-            ItemStack item = itemFactory.createItem(definition, 1);
+        for (EquipmentSlot slot : SLOTS) {
+            ItemStack item = plan.equipment(slot);
+            if (item == null) {
+                continue;
+            }
             switch (slot) {
                 case HAND -> gear.setItemInMainHand(item);
                 case OFF_HAND -> gear.setItemInOffHand(item);
@@ -77,6 +160,6 @@ public final class MobSpawner {
                 case FEET -> gear.setBoots(item);
                 default -> { }
             }
-        }));
+        }
     }
 }
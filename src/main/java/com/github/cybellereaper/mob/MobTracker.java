@@ -0,0 +1,280 @@
+package com.github.cybellereaper.mob;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Index of the custom mobs currently loaded, keyed by entity UUID and bucketed per chunk.
+ * <p>
+ * Spawned mobs carry their id in the {@code nobleitems:mob} persistent data tag, so the index is rebuilt lazily as
+ * chunks load their entities and survives restarts. Buckets follow wandering mobs through a periodic re-bucket pass.
+ * Main thread only.
+ */
+public final class MobTracker implements Listener {
+    private final Plugin plugin;
+    private final CustomMobRegistry mobRegistry;
+    private final NamespacedKey mobKey;
+    private final int perWorldCap;
+    private final int perChunkCap;
+    private final Map<UUID, Tracked> tracked = new HashMap<>();
+    private final Map<UUID, WorldIndex> worlds = new HashMap<>();
+    private final List<BiConsumer<LivingEntity, CustomMob>> trackCallbacks = new ArrayList<>();
+    private final List<Consumer<LivingEntity>> untrackCallbacks = new ArrayList<>();
+
+    public MobTracker(Plugin plugin, CustomMobRegistry mobRegistry, int perWorldCap, int perChunkCap) {
+        this.plugin = plugin;
+        this.mobRegistry = mobRegistry;
+        this.mobKey = new NamespacedKey(plugin, "mob");
+        this.perWorldCap = perWorldCap;
+        this.perChunkCap = perChunkCap;
+    }
+
+    /**
+     * Indexes the entities of every loaded chunk and starts the re-bucket pass.
+     */
+    public void start() {
+        plugin.getServer().getWorlds().forEach(world -> world.getLivingEntities().forEach(this::indexIfTagged));
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::rebucket, 40L, 40L);
+    }
+
+    /**
+     * Registers a callback run whenever a mob enters the index, either freshly spawned or loaded with its chunk. Mobs
+     * whose definition no longer exists are indexed without notifying callbacks.
+     */
+    public void onTrack(BiConsumer<LivingEntity, CustomMob> callback) {
+        trackCallbacks.add(callback);
+    }
+
+    /**
+     * Registers a callback run whenever a mob leaves the index through death, despawn or unloading.
+     */
+    public void onUntrack(Consumer<LivingEntity> callback) {
+        untrackCallbacks.add(callback);
+    }
+
+    /**
+     * Tags a freshly spawned entity and adds it to the index.
+     */
+    public void track(LivingEntity entity, CustomMob mob) {
+        entity.getPersistentDataContainer().set(mobKey, PersistentDataType.STRING, mob.id());
+        index(entity, mob.id());
+    }
+
+    /**
+     * @return {@code true} if neither the world nor the chunk of {@code location} has reached its population cap
+     */
+    public boolean hasCapacity(Location location) {
+        WorldIndex world = worlds.get(location.getWorld().getUID());
+        if (world == null) {
+            return true;
+        }
+        if (perWorldCap > 0 && world.count >= perWorldCap) {
+            return false;
+        }
+        if (perChunkCap <= 0) {
+            return true;
+        }
+        Set<UUID> bucket = world.chunks.get(Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+        return bucket == null || bucket.size() < perChunkCap;
+    }
+
+    public boolean isCustomMob(Entity entity) {
+        return tracked.containsKey(entity.getUniqueId());
+    }
+
+    /**
+     * @return the current definition of a tracked mob, or {@code null} if the entity is not tracked or its
+     * definition was removed by a reload
+     */
+    public CustomMob mobOf(Entity entity) {
+        Tracked entry = tracked.get(entity.getUniqueId());
+        return entry == null ? null : mobRegistry.find(entry.mobId);
+    }
+
+    public int count(World world) {
+        WorldIndex index = worlds.get(world.getUID());
+        return index == null ? 0 : index.count;
+    }
+
+    /**
+     * Collects tracked mobs within {@code radius} blocks of {@code center}, only visiting the chunk buckets that
+     * overlap the radius.
+     * @param mobId only return mobs with this id (ignoring case), or {@code null} for every custom mob
+     */
+    public List<LivingEntity> nearby(Location center, double radius, String mobId) {
+        WorldIndex world = worlds.get(center.getWorld().getUID());
+        List<LivingEntity> result = new ArrayList<>();
+        if (world == null) {
+            return result;
+        }
+        double radiusSquared = radius * radius;
+        // one chunk of slack for mobs that moved since the last re-bucket pass
+        int minX = ((int) Math.floor(center.getX() - radius) >> 4) - 1;
+        int maxX = ((int) Math.floor(center.getX() + radius) >> 4) + 1;
+        int minZ = ((int) Math.floor(center.getZ() - radius) >> 4) - 1;
+        int maxZ = ((int) Math.floor(center.getZ() + radius) >> 4) + 1;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                Set<UUID> bucket = world.chunks.get(Chunk.getChunkKey(x, z));
+                if (bucket == null) {
+                    continue;
+                }
+                for (UUID uuid : bucket) {
+                    Tracked entry = tracked.get(uuid);
+                    if (entry == null || (mobId != null && !entry.mobId.equalsIgnoreCase(mobId))) {
+                        continue;
+                    }
+                    if (entry.entity.isValid() && entry.entity.getLocation().distanceSquared(center) <= radiusSquared) {
+                        result.add(entry.entity);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            indexIfTagged(entity);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            remove(entity.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAdd(EntityAddToWorldEvent event) {
+        // covers mobs changing worlds, which leave through the remove event below
+        indexIfTagged(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRemove(EntityRemoveFromWorldEvent event) {
+        remove(event.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        WorldIndex world = worlds.remove(event.getWorld().getUID());
+        if (world != null) {
+            world.chunks.values().forEach(bucket -> bucket.forEach(uuid -> {
+                Tracked entry = tracked.remove(uuid);
+                if (entry != null) {
+                    untrackCallbacks.forEach(callback -> callback.accept(entry.entity));
+                }
+            }));
+        }
+    }
+
+    private void indexIfTagged(Entity entity) {
+        if (!(entity instanceof LivingEntity living) || tracked.containsKey(entity.getUniqueId())) {
+            return;
+        }
+        String mobId = entity.getPersistentDataContainer().get(mobKey, PersistentDataType.STRING);
+        if (mobId != null) {
+            index(living, mobId);
+        }
+    }
+
+    private void index(LivingEntity entity, String mobId) {
+        Location location = entity.getLocation();
+        long chunk = Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        WorldIndex world = worlds.computeIfAbsent(entity.getWorld().getUID(), key -> new WorldIndex());
+        Tracked previous = tracked.put(entity.getUniqueId(), new Tracked(entity, mobId, world, chunk));
+        if (previous != null) {
+            previous.world.remove(previous.chunk, entity.getUniqueId());
+        }
+        world.add(chunk, entity.getUniqueId());
+        CustomMob mob = mobRegistry.find(mobId);
+        if (mob != null && previous == null) {
+            trackCallbacks.forEach(callback -> callback.accept(entity, mob));
+        }
+    }
+
+    private void remove(UUID uuid) {
+        Tracked entry = tracked.remove(uuid);
+        if (entry != null) {
+            entry.world.remove(entry.chunk, uuid);
+            untrackCallbacks.forEach(callback -> callback.accept(entry.entity));
+        }
+    }
+
+    private void rebucket() {
+        for (Tracked entry : tracked.values()) {
+            if (!entry.entity.isValid()) {
+                continue;
+            }
+            Location location = entry.entity.getLocation();
+            long chunk = Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            if (chunk != entry.chunk) {
+                entry.world.remove(entry.chunk, entry.entity.getUniqueId());
+                entry.world.add(chunk, entry.entity.getUniqueId());
+                entry.chunk = chunk;
+            }
+        }
+    }
+
+    private static final class Tracked {
+        private final LivingEntity entity;
+        private final String mobId;
+        private final WorldIndex world;
+        private long chunk;
+
+        private Tracked(LivingEntity entity, String mobId, WorldIndex world, long chunk) {
+            this.entity = entity;
+            this.mobId = mobId;
+            this.world = world;
+            this.chunk = chunk;
+        }
+    }
+
+    private static final class WorldIndex {
+        private final Map<Long, Set<UUID>> chunks = new HashMap<>();
+        private int count;
+
+        void add(long chunk, UUID uuid) {
+            if (chunks.computeIfAbsent(chunk, key -> new HashSet<>()).add(uuid)) {
+                count++;
+            }
+        }
+
+        void remove(long chunk, UUID uuid) {
+            Set<UUID> bucket = chunks.get(chunk);
+            if (bucket != null && bucket.remove(uuid)) {
+                count--;
+                if (bucket.isEmpty()) {
+                    chunks.remove(chunk);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.cybellereaper.mob;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A {@link CustomMob} compiled for spawning: the name component is built once and every equipment reference is
+ * resolved to a ready stack, indexed by {@link EquipmentSlot#ordinal()}. Stacks are cloned on use, never handed out.
+ */
+final class SpawnPlan {
+    private final CustomMob mob;
+    private final Component name;
+    private final ItemStack[] equipment;
+
+    SpawnPlan(CustomMob mob, Component name, ItemStack[] equipment) {
+        this.mob = mob;
+        this.name = name;
+        this.equipment = equipment;
+    }
+
+    CustomMob mob() {
+        return mob;
+    }
+
+    Component name() {
+        return name;
+    }
+
+    double maxHealth() {
+        return mob.maxHealth();
+    }
+
+    double attackDamage() {
+        return mob.attackDamage();
+    }
+
+    /**
+     * @return a fresh copy of the stack for the slot, or {@code null} if the slot stays empty
+     */
+    ItemStack equipment(EquipmentSlot slot) {
+        ItemStack stack = equipment[slot.ordinal()];
+        return stack == null ? null : stack.clone();
+    }
+
+    boolean hasEquipment() {
+        for (ItemStack stack : equipment) {
+            if (stack != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
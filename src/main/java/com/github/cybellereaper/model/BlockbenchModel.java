@@ -1,5 +1,34 @@
 package com.github.cybellereaper.model;
 
+import java.util.Optional;
+
 public record BlockbenchModel(String modelPath, String texturePath, double scale) {
     public static final BlockbenchModel NONE = new BlockbenchModel("", "", 1.0);
+
+    /**
+     * @return the namespaced model id the resource pack registers this model under, e.g.
+     * {@code nobleitems:entity/ruby_golem.geo} for {@code models/entity/ruby_golem.geo.json}
+     */
+    public String modelResource() {
+        return resource(modelPath, "models/", ".json");
+    }
+
+    /**
+     * @return the namespaced texture id, e.g. {@code nobleitems:entity/ruby_golem} for
+     * {@code textures/entity/ruby_golem.png}
+     */
+    public String textureResource() {
+        return resource(texturePath, "textures/", ".png");
+    }
+
+    private static String resource(String path, String directory, String extension) {
+        String normalized = Optional.ofNullable(path).orElse("").replace('\\', '/');
+        if (normalized.startsWith(directory)) {
+            normalized = normalized.substring(directory.length());
+        }
+        if (normalized.endsWith(extension)) {
+            normalized = normalized.substring(0, normalized.length() - extension.length());
+        }
+        return "nobleitems:" + normalized;
+    }
 }
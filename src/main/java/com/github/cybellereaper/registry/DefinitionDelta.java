@@ -0,0 +1,24 @@
+package com.github.cybellereaper.registry;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Incremental change to a registry: definitions to add or replace, and ids to drop.
+ * @param upserts definitions that are new or whose content changed
+ * @param removals ids that no longer have any definition
+ */
+public record DefinitionDelta<T>(List<T> upserts, Set<String> removals) {
+    public DefinitionDelta {
+        upserts = List.copyOf(upserts);
+        removals = Set.copyOf(removals);
+    }
+
+    public static <T> DefinitionDelta<T> empty() {
+        return new DefinitionDelta<>(List.of(), Set.of());
+    }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && removals.isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.cybellereaper.registry;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, case-insensitive id lookup table used as a registry snapshot.
+ * <p>
+ * Keys are folded once when the snapshot is built; lookups hash the query in place and compare with
+ * {@link String#equalsIgnoreCase(String)}, so {@link #get(String)} never allocates.
+ *
+ * @param <V> the definition type stored in the index
+ */
+public final class IdIndex<V> {
+    private static final IdIndex<?> EMPTY = new IdIndex<>(List.of(), List.of());
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final List<V> ordered;
+    private final PrefixIndex prefixes;
+
+    private IdIndex(List<Map.Entry<String, V>> entries, List<String> originalIds) {
+        int capacity = Integer.highestOneBit(Math.max(2, entries.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<String, V> entry : entries) {
+            int slot = hash(entry.getKey()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = entry.getKey();
+            values[slot] = entry.getValue();
+        }
+        this.ordered = entries.stream().map(Map.Entry::getValue).toList();
+        this.prefixes = entries.isEmpty() ? PrefixIndex.EMPTY : PrefixIndex.of(originalIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> IdIndex<V> empty() {
+        return (IdIndex<V>) EMPTY;
+    }
+
+    /**
+     * Builds a snapshot from the given definitions. When two definitions share an id (ignoring case) the later one
+     * wins, matching the previous map-backed behaviour.
+     */
+    public static <V> IdIndex<V> of(Collection<? extends V> definitions, Function<? super V, String> idFunction) {
+        Map<String, V> unique = new LinkedHashMap<>();
+        for (V definition : definitions) {
+            unique.put(idFunction.apply(definition).toLowerCase(Locale.ROOT), definition);
+        }
+        return build(unique, idFunction);
+    }
+
+    /**
+     * Builds a new snapshot with the delta applied; this snapshot is left untouched. Replaced definitions keep their
+     * position, new ones are appended.
+     */
+    public IdIndex<V> with(DefinitionDelta<? extends V> delta, Function<? super V, String> idFunction) {
+        Map<String, V> merged = new LinkedHashMap<>();
+        for (V definition : ordered) {
+            merged.put(idFunction.apply(definition).toLowerCase(Locale.ROOT), definition);
+        }
+        for (String removed : delta.removals()) {
+            merged.remove(removed.toLowerCase(Locale.ROOT));
+        }
+        for (V definition : delta.upserts()) {
+            merged.put(idFunction.apply(definition).toLowerCase(Locale.ROOT), definition);
+        }
+        return build(merged, idFunction);
+    }
+
+    private static <V> IdIndex<V> build(Map<String, V> unique, Function<? super V, String> idFunction) {
+        List<String> originalIds = unique.values().stream().map(idFunction::apply).toList();
+        return new IdIndex<>(List.copyOf(unique.entrySet()), originalIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(String id) {
+        int slot = hash(id) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.length() == id.length() && key.equalsIgnoreCase(id)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return up to {@code limit} ids starting with {@code prefix}, ignoring case, in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        return prefixes.complete(prefix, limit);
+    }
+
+    /**
+     * @return the id closest to a mistyped {@code query}, or {@code null} if none is within a few edits
+     */
+    public String closest(String query) {
+        return prefixes.closest(query);
+    }
+
+    public int size() {
+        return ordered.size();
+    }
+
+    /**
+     * @return the definitions in load order; the list is immutable and safe to iterate while a reload is published
+     */
+    public List<V> values() {
+        return ordered;
+    }
+
+    private static int hash(String id) {
+        int h = 0;
+        for (int i = 0; i < id.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(id.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+}
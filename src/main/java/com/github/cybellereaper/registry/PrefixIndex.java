@@ -0,0 +1,117 @@
+package com.github.cybellereaper.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sorted, case-folded id table answering prefix and "did you mean" queries for tab completion.
+ */
+final class PrefixIndex {
+    static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0]);
+
+    private final String[] folded;
+    private final String[] ids;
+
+    private PrefixIndex(String[] folded, String[] ids) {
+        this.folded = folded;
+        this.ids = ids;
+    }
+
+    static PrefixIndex of(List<String> ids) {
+        Integer[] order = new Integer[ids.size()];
+        String[] keys = new String[ids.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            keys[i] = ids.get(i).toLowerCase(Locale.ROOT);
+        }
+        Arrays.sort(order, Comparator.comparing(i -> keys[i]));
+        String[] folded = new String[order.length];
+        String[] original = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            folded[i] = keys[order[i]];
+            original[i] = ids.get(order[i]);
+        }
+        return new PrefixIndex(folded, original);
+    }
+
+    /**
+     * @return at most {@code limit} ids starting with {@code prefix} (ignoring case), in alphabetical order
+     */
+    List<String> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int index = lowerBound(key);
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        while (index < folded.length && matches.size() < limit && folded[index].startsWith(key)) {
+            matches.add(ids[index++]);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the id with the smallest edit distance to {@code query}, allowing roughly one typo per three characters.
+     * @return the closest id, or {@code null} if nothing is close enough
+     */
+    String closest(String query) {
+        String key = query.toLowerCase(Locale.ROOT);
+        int budget = Math.max(1, Math.min(3, key.length() / 3));
+        String best = null;
+        int bestDistance = budget + 1;
+        int[] previous = new int[key.length() + 1];
+        int[] current = new int[key.length() + 1];
+        for (int i = 0; i < folded.length; i++) {
+            String candidate = folded[i];
+            if (Math.abs(candidate.length() - key.length()) >= bestDistance) {
+                continue;
+            }
+            int distance = distance(key, candidate, bestDistance, previous, current);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = ids[i];
+            }
+        }
+        return best;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = folded.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (folded[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Levenshtein distance that gives up once every entry in a row reaches {@code limit}.
+     */
+    private static int distance(String a, String b, int limit, int[] previous, int[] current) {
+        for (int i = 0; i <= a.length(); i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= b.length(); j++) {
+            current[0] = j;
+            int rowMin = j;
+            char c = b.charAt(j - 1);
+            for (int i = 1; i <= a.length(); i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                rowMin = Math.min(rowMin, current[i]);
+            }
+            if (rowMin >= limit) {
+                return limit;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[a.length()];
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.cybellereaper.render;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Blockbench (Bedrock format) {@code .animation.json} files and bakes every animation into a
+ * {@link BakedAnimation} by linearly interpolating its keyframes at each server tick.
+ * <p>
+ * Molang expressions are not evaluated; a keyframe value that is not a plain number counts as 0.
+ */
+public final class AnimationBaker {
+    private static final float[] ZERO = {0f, 0f, 0f};
+    private static final float[] ONE = {1f, 1f, 1f};
+
+    private AnimationBaker() {
+    }
+
+    /**
+     * @return the baked animations by name, in file order
+     * @throws IOException if the file cannot be read or is not valid animation JSON
+     */
+    public static Map<String, BakedAnimation> bake(Reader reader) throws IOException {
+        JsonObject root;
+        try {
+            root = JsonParser.parseReader(reader).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException ex) {
+            throw new IOException("Invalid animation file", ex);
+        }
+        Map<String, BakedAnimation> result = new LinkedHashMap<>();
+        JsonObject animations = root.getAsJsonObject("animations");
+        if (animations == null) {
+            return result;
+        }
+        for (Map.Entry<String, JsonElement> entry : animations.entrySet()) {
+            if (entry.getValue().isJsonObject()) {
+                result.put(entry.getKey(), bake(entry.getKey(), entry.getValue().getAsJsonObject()));
+            }
+        }
+        return result;
+    }
+
+    private static BakedAnimation bake(String name, JsonObject animation) {
+        boolean loop = animation.has("loop") && animation.get("loop").isJsonPrimitive()
+                && animation.get("loop").getAsJsonPrimitive().isBoolean() && animation.get("loop").getAsBoolean();
+        JsonObject bonesJson = animation.has("bones") ? animation.getAsJsonObject("bones") : new JsonObject();
+        List<String> bones = new ArrayList<>(bonesJson.keySet());
+        Channel[][] channels = new Channel[bones.size()][3];
+        float length = animation.has("animation_length") ? animation.get("animation_length").getAsFloat() : 0f;
+        for (int b = 0; b < bones.size(); b++) {
+            JsonObject bone = bonesJson.getAsJsonObject(bones.get(b));
+            channels[b][0] = Channel.parse(bone.get("position"), ZERO);
+            channels[b][1] = Channel.parse(bone.get("rotation"), ZERO);
+            channels[b][2] = Channel.parse(bone.get("scale"), ONE);
+            for (Channel channel : channels[b]) {
+                length = Math.max(length, channel.lastTime());
+            }
+        }
+        int frames = Math.max(1, (int) Math.ceil(length * BakedAnimation.TICKS_PER_SECOND));
+        float[] data = new float[frames * bones.size() * BakedAnimation.STRIDE];
+        for (int frame = 0; frame < frames; frame++) {
+            float time = (float) frame / BakedAnimation.TICKS_PER_SECOND;
+            for (int b = 0; b < bones.size(); b++) {
+                int offset = (frame * bones.size() + b) * BakedAnimation.STRIDE;
+                channels[b][0].sample(time, data, offset + BakedAnimation.POSITION);
+                channels[b][1].sample(time, data, offset + BakedAnimation.ROTATION);
+                channels[b][2].sample(time, data, offset + BakedAnimation.SCALE);
+            }
+        }
+        return new BakedAnimation(name, loop, frames, bones.toArray(String[]::new), data);
+    }
+
+    /**
+     * Keyframes of one bone property, sorted by time.
+     */
+    private record Channel(float[] times, float[][] values) {
+        static Channel parse(JsonElement element, float[] fallback) {
+            if (element == null || element.isJsonNull()) {
+                return new Channel(new float[]{0f}, new float[][]{fallback});
+            }
+            if (!element.isJsonObject() || isKeyframe(element.getAsJsonObject())) {
+                return new Channel(new float[]{0f}, new float[][]{vector(element, fallback)});
+            }
+            List<Map.Entry<Float, float[]>> keyframes = new ArrayList<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                try {
+                    keyframes.add(Map.entry(Float.parseFloat(entry.getKey()), vector(entry.getValue(), fallback)));
+                } catch (NumberFormatException ignored) {
+                    // not a timestamp
+                }
+            }
+            if (keyframes.isEmpty()) {
+                return new Channel(new float[]{0f}, new float[][]{fallback});
+            }
+            keyframes.sort(Map.Entry.comparingByKey());
+            float[] times = new float[keyframes.size()];
+            float[][] values = new float[keyframes.size()][];
+            for (int i = 0; i < times.length; i++) {
+                times[i] = keyframes.get(i).getKey();
+                values[i] = keyframes.get(i).getValue();
+            }
+            return new Channel(times, values);
+        }
+
+        float lastTime() {
+            return times[times.length - 1];
+        }
+
+        void sample(float time, float[] out, int offset) {
+            if (time <= times[0] || times.length == 1) {
+                System.arraycopy(values[0], 0, out, offset, 3);
+                return;
+            }
+            int next = 1;
+            while (next < times.length && times[next] < time) {
+                next++;
+            }
+            if (next == times.length) {
+                System.arraycopy(values[times.length - 1], 0, out, offset, 3);
+                return;
+            }
+            float span = times[next] - times[next - 1];
+            float t = span <= 0f ? 1f : (time - times[next - 1]) / span;
+            for (int axis = 0; axis < 3; axis++) {
+                float from = values[next - 1][axis];
+                out[offset + axis] = from + (values[next][axis] - from) * t;
+            }
+        }
+
+        private static boolean isKeyframe(JsonObject object) {
+            return object.has("post") || object.has("pre");
+        }
+
+        private static float[] vector(JsonElement element, float[] fallback) {
+            if (element.isJsonObject()) {
+                JsonObject keyframe = element.getAsJsonObject();
+                element = keyframe.has("post") ? keyframe.get("post") : keyframe.get("pre");
+                if (element == null) {
+                    return fallback;
+                }
+            }
+            if (element.isJsonArray()) {
+                JsonArray array = element.getAsJsonArray();
+                float[] vector = new float[3];
+                for (int axis = 0; axis < 3; axis++) {
+                    vector[axis] = axis < array.size() ? number(array.get(axis)) : fallback[axis];
+                }
+                return vector;
+            }
+            float uniform = number(element);
+            return new float[]{uniform, uniform, uniform};
+        }
+
+        private static float number(JsonElement element) {
+            if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+                return element.getAsFloat();
+            }
+            if (element.isJsonPrimitive()) {
+                try {
+                    return Float.parseFloat(element.getAsString().trim());
+                } catch (NumberFormatException ignored) {
+                    // molang expression
+                }
+            }
+            return 0f;
+        }
+    }
+}
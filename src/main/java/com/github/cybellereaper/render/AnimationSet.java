@@ -0,0 +1,40 @@
+package com.github.cybellereaper.render;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The animations a model plays: {@code idle} while standing and {@code walk} while moving. Either may be
+ * {@code null}.
+ */
+record AnimationSet(BakedAnimation idle, BakedAnimation walk) {
+    static final AnimationSet NONE = new AnimationSet(null, null);
+
+    /**
+     * Picks the animations whose names contain {@code idle} and {@code walk}; without an idle animation the first one
+     * in the file is used.
+     */
+    static AnimationSet of(Map<String, BakedAnimation> animations) {
+        BakedAnimation idle = null;
+        BakedAnimation walk = null;
+        for (BakedAnimation animation : animations.values()) {
+            if (animation.boneCount() == 0) {
+                continue;
+            }
+            String name = animation.name().toLowerCase(Locale.ROOT);
+            if (idle == null && name.contains("idle")) {
+                idle = animation;
+            } else if (walk == null && name.contains("walk")) {
+                walk = animation;
+            }
+        }
+        if (idle == null) {
+            idle = animations.values().stream().filter(animation -> animation.boneCount() > 0).findFirst().orElse(null);
+        }
+        return idle == null && walk == null ? NONE : new AnimationSet(idle, walk);
+    }
+
+    BakedAnimation select(boolean moving) {
+        return moving && walk != null ? walk : idle;
+    }
+}
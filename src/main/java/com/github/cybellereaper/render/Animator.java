@@ -0,0 +1,30 @@
+package com.github.cybellereaper.render;
+
+import org.joml.Matrix4f;
+
+/**
+ * Turns a frame of a {@link BakedAnimation} into a display transformation. The returned matrix is reused by every
+ * call, so sampling allocates nothing; it must be consumed before the next call. Main thread only.
+ */
+final class Animator {
+    private static final float PIXEL = 1f / 16f;
+    private static final float DEGREES_TO_RADIANS = (float) (Math.PI / 180.0);
+
+    private final Matrix4f matrix = new Matrix4f();
+
+    /**
+     * @return {@code base} followed by the bone's position, rotation and scale at {@code frame}
+     */
+    Matrix4f sample(Matrix4f base, BakedAnimation animation, int bone, int frame) {
+        return matrix.set(base)
+                .translate(animation.value(frame, bone, BakedAnimation.POSITION) * PIXEL,
+                        animation.value(frame, bone, BakedAnimation.POSITION + 1) * PIXEL,
+                        animation.value(frame, bone, BakedAnimation.POSITION + 2) * PIXEL)
+                .rotateZYX(animation.value(frame, bone, BakedAnimation.ROTATION + 2) * DEGREES_TO_RADIANS,
+                        animation.value(frame, bone, BakedAnimation.ROTATION + 1) * DEGREES_TO_RADIANS,
+                        animation.value(frame, bone, BakedAnimation.ROTATION) * DEGREES_TO_RADIANS)
+                .scale(animation.value(frame, bone, BakedAnimation.SCALE),
+                        animation.value(frame, bone, BakedAnimation.SCALE + 1),
+                        animation.value(frame, bone, BakedAnimation.SCALE + 2));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.cybellereaper.render;
+
+/**
+ * A Blockbench animation pre-sampled at the server tick rate.
+ * <p>
+ * Every frame stores {@link #STRIDE} floats per bone, laid out as position (pixels), rotation (degrees) and scale,
+ * each as x, y, z. Playback is a single array read per channel; no keyframe search or interpolation happens at
+ * runtime.
+ */
+public final class BakedAnimation {
+    public static final int TICKS_PER_SECOND = 20;
+    public static final int STRIDE = 9;
+    public static final int POSITION = 0;
+    public static final int ROTATION = 3;
+    public static final int SCALE = 6;
+
+    private final String name;
+    private final boolean loop;
+    private final int frames;
+    private final String[] bones;
+    private final float[] data;
+    private final int rootBone;
+
+    BakedAnimation(String name, boolean loop, int frames, String[] bones, float[] data) {
+        this.name = name;
+        this.loop = loop;
+        this.frames = frames;
+        this.bones = bones;
+        this.data = data;
+        this.rootBone = Math.max(0, bone("root"));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean loop() {
+        return loop;
+    }
+
+    public int frames() {
+        return frames;
+    }
+
+    public int boneCount() {
+        return bones.length;
+    }
+
+    /**
+     * @return the bone named {@code root}, or the first bone if there is none
+     */
+    public int rootBone() {
+        return rootBone;
+    }
+
+    /**
+     * @return the index of the bone with this name, or {@code -1}
+     */
+    public int bone(String boneName) {
+        for (int i = 0; i < bones.length; i++) {
+            if (bones[i].equals(boneName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the frame to show {@code ticks} ticks after playback started; looping animations wrap, others hold
+     * their last frame
+     */
+    public int frameAt(long ticks) {
+        if (loop) {
+            return (int) (ticks % frames);
+        }
+        return (int) Math.min(ticks, frames - 1);
+    }
+
+    /**
+     * @param channel one of {@link #POSITION}, {@link #ROTATION} or {@link #SCALE}, plus 0-2 for the axis
+     */
+    public float value(int frame, int bone, int channel) {
+        return data[(frame * bones.length + bone) * STRIDE + channel];
+    }
+}
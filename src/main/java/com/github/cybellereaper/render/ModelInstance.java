@@ -0,0 +1,57 @@
+package com.github.cybellereaper.render;
+
+import com.github.cybellereaper.mob.CustomMob;
+import org.bukkit.Location;
+import org.bukkit.entity.ItemDisplay;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.joml.Matrix4f;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A custom mob rendered through its Blockbench model: the mob itself is invisible and carries an {@link ItemDisplay}
+ * bone as passenger. Main thread only.
+ */
+final class ModelInstance {
+    final LivingEntity entity;
+    final CustomMob mob;
+    final ItemDisplay bone;
+    /** Scale and offset applied before any animation; never modified after creation. */
+    final Matrix4f base;
+    /** Players currently shown the bone. */
+    final Set<UUID> viewers = new HashSet<>();
+    /** Scratch location for allocation-free position reads. */
+    final Location position = new Location(null, 0, 0, 0);
+    float lastYaw = Float.NaN;
+    double lastX;
+    double lastZ;
+    AnimationSet animations = AnimationSet.NONE;
+    BakedAnimation playing;
+    long playingSince;
+    int lastFrame = -1;
+
+    ModelInstance(LivingEntity entity, CustomMob mob, ItemDisplay bone, Matrix4f base) {
+        this.entity = entity;
+        this.mob = mob;
+        this.bone = bone;
+        this.base = base;
+    }
+
+    boolean isVisibleTo(Player player) {
+        return viewers.contains(player.getUniqueId());
+    }
+
+    /**
+     * Switches to {@code animation} unless it is already playing, restarting it from its first frame.
+     */
+    void play(BakedAnimation animation, long tick) {
+        if (animation != playing) {
+            playing = animation;
+            playingSince = tick;
+            lastFrame = -1;
+        }
+    }
+}
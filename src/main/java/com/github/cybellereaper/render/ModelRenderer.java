@@ -0,0 +1,311 @@
+package com.github.cybellereaper.render;
+
+import com.github.cybellereaper.mob.CustomMob;
+import com.github.cybellereaper.model.BlockbenchModel;
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import net.kyori.adventure.key.Key;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.ItemDisplay;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.joml.Matrix4f;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Renders custom mobs with their Blockbench model by mounting an {@link ItemDisplay} bone on the invisible entity.
+ * <p>
+ * Bones are hidden by default and only shown to players within the view distance; a single task re-evaluates
+ * visibility every few ticks and pushes transform updates once per tick, skipping instances nobody can see. The cost
+ * of a modelled mob is therefore proportional to the players actually looking at it.
+ * <p>
+ * Models with a {@code .animation.json} next to their {@code .geo.json} play its baked idle and walk animations on
+ * the root bone from the same task, so one scheduler drives every animated instance. Animation files are read and
+ * baked on a background thread; only the finished sets are handed to live instances on the main thread.
+ */
+public final class ModelRenderer {
+    private static final float YAW_EPSILON = 0.5f;
+    /** Squared horizontal distance per tick above which a mob counts as walking. */
+    private static final double WALK_THRESHOLD_SQUARED = 0.02 * 0.02;
+
+    private final Plugin plugin;
+    private final double viewDistanceSquared;
+    private final int cullIntervalTicks;
+    private final Map<UUID, ModelInstance> instances = new HashMap<>();
+    private final Animator animator = new Animator();
+    private final ExecutorService baker;
+    private final Executor mainThread;
+    private Map<String, AnimationSet> animations = Map.of();
+    private BukkitTask task;
+    private long tick;
+    private int generation;
+
+    public ModelRenderer(Plugin plugin, double viewDistance, int cullIntervalTicks) {
+        this.plugin = plugin;
+        this.viewDistanceSquared = viewDistance * viewDistance;
+        this.cullIntervalTicks = Math.max(1, cullIntervalTicks);
+        this.baker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NobleItems-AnimationBaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mainThread = task -> plugin.getServer().getScheduler().runTask(plugin, task);
+    }
+
+    public void start() {
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    public void shutdown() {
+        baker.shutdownNow();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        instances.values().forEach(ModelRenderer::tearDown);
+        instances.clear();
+    }
+
+    /**
+     * Remounts live instances whose mob changed or lost its model, then bakes the animations of every mob model in
+     * the background and hands them to live instances on a later tick. Call after every registry publish; a bake
+     * superseded by a newer call is discarded.
+     */
+    public void rebuild(Collection<CustomMob> definitions) {
+        Set<String> modelPaths = new HashSet<>();
+        Map<String, CustomMob> byId = new HashMap<>(definitions.size() * 2);
+        for (CustomMob mob : definitions) {
+            byId.put(mob.id(), mob);
+            BlockbenchModel model = mob.blockbench();
+            if (model != null && !model.equals(BlockbenchModel.NONE)) {
+                modelPaths.add(model.modelPath());
+            }
+        }
+        remount(byId);
+        int requested = ++generation;
+        Path dataFolder = plugin.getDataFolder().toPath();
+        CompletableFuture.supplyAsync(() -> bake(dataFolder, modelPaths), baker)
+                .thenAcceptAsync(baked -> {
+                    if (requested == generation) {
+                        apply(baked);
+                    }
+                }, mainThread)
+                .exceptionally(error -> {
+                    plugin.getLogger().log(Level.WARNING, "Unable to bake mob animations", error);
+                    return null;
+                });
+    }
+
+    /**
+     * Reads and bakes the animation file next to every model. Runs on the baker thread.
+     */
+    private Map<String, AnimationSet> bake(Path dataFolder, Set<String> modelPaths) {
+        Map<String, AnimationSet> baked = new HashMap<>();
+        for (String modelPath : modelPaths) {
+            Path file = dataFolder.resolve(animationPath(modelPath));
+            if (!Files.isRegularFile(file)) {
+                baked.put(modelPath, AnimationSet.NONE);
+                continue;
+            }
+            try (Reader reader = Files.newBufferedReader(file)) {
+                baked.put(modelPath, AnimationSet.of(AnimationBaker.bake(reader)));
+            } catch (IOException ex) {
+                plugin.getLogger().log(Level.WARNING, "Unable to read animations " + file, ex);
+                baked.put(modelPath, AnimationSet.NONE);
+            }
+        }
+        return baked;
+    }
+
+    /**
+     * Tears down instances whose definition is gone or now has a different model, restoring the mob's own look, and
+     * attaches the new model where there is one.
+     */
+    private void remount(Map<String, CustomMob> definitions) {
+        Map<LivingEntity, CustomMob> changed = new HashMap<>();
+        Iterator<ModelInstance> iterator = instances.values().iterator();
+        while (iterator.hasNext()) {
+            ModelInstance instance = iterator.next();
+            CustomMob current = definitions.get(instance.mob.id());
+            if (current == null || !instance.mob.blockbench().equals(current.blockbench())) {
+                tearDown(instance);
+                iterator.remove();
+                if (current != null && instance.entity.isValid()) {
+                    changed.put(instance.entity, current);
+                }
+            }
+        }
+        changed.forEach(this::attach);
+    }
+
+    private void apply(Map<String, AnimationSet> baked) {
+        animations = baked;
+        for (ModelInstance instance : instances.values()) {
+            instance.animations = baked.getOrDefault(instance.mob.blockbench().modelPath(), AnimationSet.NONE);
+            instance.play(null, tick);
+            instance.bone.setTransformationMatrix(instance.base);
+        }
+    }
+
+    /**
+     * Mounts the model bone on a custom mob. Mobs without a Blockbench model keep their vanilla look.
+     */
+    public void attach(LivingEntity entity, CustomMob mob) {
+        BlockbenchModel model = mob.blockbench();
+        if (model == null || model.equals(BlockbenchModel.NONE) || instances.containsKey(entity.getUniqueId())) {
+            return;
+        }
+        ItemStack item = new ItemStack(Material.PAPER);
+        item.setData(DataComponentTypes.ITEM_MODEL, Key.key(model.modelResource()));
+        // passengers sit on top of the vehicle; shift the model back down to its feet
+        Matrix4f base = new Matrix4f()
+                .translate(0f, -(float) entity.getHeight(), 0f)
+                .scale((float) model.scale());
+        ItemDisplay bone = entity.getWorld().spawn(entity.getLocation(), ItemDisplay.class, display -> {
+            display.setPersistent(false);
+            display.setVisibleByDefault(false);
+            display.setItemStack(item);
+            display.setItemDisplayTransform(ItemDisplay.ItemDisplayTransform.NONE);
+            display.setTransformationMatrix(base);
+            display.setInterpolationDuration(1);
+            display.setTeleportDuration(1);
+        });
+        entity.addPassenger(bone);
+        entity.setInvisible(true);
+        ModelInstance instance = new ModelInstance(entity, mob, bone, base);
+        instance.animations = animations.getOrDefault(model.modelPath(), AnimationSet.NONE);
+        instances.put(entity.getUniqueId(), instance);
+    }
+
+    public void detach(LivingEntity entity) {
+        ModelInstance instance = instances.remove(entity.getUniqueId());
+        if (instance != null) {
+            tearDown(instance);
+        }
+    }
+
+    /**
+     * Removes the model bone and makes the mob visible again, as {@link #attach} hid it behind the model.
+     */
+    private static void tearDown(ModelInstance instance) {
+        instance.bone.remove();
+        if (instance.entity.isValid()) {
+            instance.entity.setInvisible(false);
+        }
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    private void tick() {
+        if (tick++ % cullIntervalTicks == 0) {
+            cull();
+        }
+        for (ModelInstance instance : instances.values()) {
+            if (instance.viewers.isEmpty()) {
+                continue;
+            }
+            float yaw = instance.entity.getBodyYaw();
+            if (!(Math.abs(yaw - instance.lastYaw) <= YAW_EPSILON)) {
+                instance.bone.setRotation(yaw, 0f);
+                instance.lastYaw = yaw;
+            }
+            if (instance.animations != AnimationSet.NONE) {
+                animate(instance);
+            }
+        }
+    }
+
+    private void animate(ModelInstance instance) {
+        Location position = instance.entity.getLocation(instance.position);
+        double dx = position.getX() - instance.lastX;
+        double dz = position.getZ() - instance.lastZ;
+        instance.lastX = position.getX();
+        instance.lastZ = position.getZ();
+        instance.play(instance.animations.select(dx * dx + dz * dz > WALK_THRESHOLD_SQUARED), tick);
+        BakedAnimation animation = instance.playing;
+        if (animation == null) {
+            return;
+        }
+        int frame = animation.frameAt(tick - instance.playingSince);
+        if (frame != instance.lastFrame) {
+            instance.bone.setTransformationMatrix(animator.sample(instance.base, animation, animation.rootBone(), frame));
+            instance.lastFrame = frame;
+        }
+    }
+
+    /**
+     * @return {@code models/entity/golem.animation.json} for {@code models/entity/golem.geo.json}
+     */
+    static String animationPath(String modelPath) {
+        String base = modelPath.endsWith(".json") ? modelPath.substring(0, modelPath.length() - 5) : modelPath;
+        if (base.endsWith(".geo")) {
+            base = base.substring(0, base.length() - 4);
+        }
+        return base + ".animation.json";
+    }
+
+    private void cull() {
+        Collection<? extends Player> online = plugin.getServer().getOnlinePlayers();
+        int count = online.size();
+        Player[] players = online.toArray(new Player[0]);
+        World[] worlds = new World[count];
+        double[] coordinates = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            Location location = players[i].getLocation();
+            worlds[i] = location.getWorld();
+            coordinates[i * 3] = location.getX();
+            coordinates[i * 3 + 1] = location.getY();
+            coordinates[i * 3 + 2] = location.getZ();
+        }
+        Iterator<ModelInstance> iterator = instances.values().iterator();
+        while (iterator.hasNext()) {
+            ModelInstance instance = iterator.next();
+            if (!instance.entity.isValid()) {
+                instance.bone.remove();
+                iterator.remove();
+                continue;
+            }
+            // drop viewers that logged out; their client no longer tracks the bone
+            instance.viewers.removeIf(uuid -> plugin.getServer().getPlayer(uuid) == null);
+            Location location = instance.entity.getLocation(instance.position);
+            for (int i = 0; i < count; i++) {
+                double dx = coordinates[i * 3] - location.getX();
+                double dy = coordinates[i * 3 + 1] - location.getY();
+                double dz = coordinates[i * 3 + 2] - location.getZ();
+                boolean inRange = worlds[i] == location.getWorld() && dx * dx + dy * dy + dz * dz <= viewDistanceSquared;
+                boolean shown = instance.isVisibleTo(players[i]);
+                if (inRange && !shown) {
+                    players[i].showEntity(plugin, instance.bone);
+                    instance.viewers.add(players[i].getUniqueId());
+                } else if (!inRange && shown) {
+                    players[i].hideEntity(plugin, instance.bone);
+                    instance.viewers.remove(players[i].getUniqueId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.cybellereaper.resourcepack;
+
+/**
+ * Observes a running {@link ResourcePackBuilder#build}. Called from the building thread.
+ */
+public interface BuildListener {
+    BuildListener NONE = (written, total, bytes) -> { };
+
+    /**
+     * Called after each entry is appended to the zip.
+     * @param bytes size of the zip so far
+     */
+    void progress(int written, int total, long bytes);
+
+    /**
+     * Polled between entries; once it returns {@code true} the build stops and leaves the previous pack in place.
+     */
+    default boolean cancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.cybellereaper.resourcepack;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Outcome of a resource pack build.
+ * @param destination the zip that was written
+ * @param entries number of files in the pack
+ * @param reused entries whose compressed bytes were copied unchanged from the previous build
+ * @param bytes size of the zip
+ * @param millis wall time of the build
+ * @param savings bytes removed from each optimised texture in the pack, including those reused from the previous
+ *                build, by entry name
+ * @param savingsReport text file listing {@code savings} largest first, or {@code null} if there are none
+ * @param duplicates assets left out because an identical one is already in the pack
+ * @param duplicateBytes source bytes of those assets
+ */
+public record BuildResult(Path destination, int entries, int reused, long bytes, long millis, Map<String, Long> savings,
+                          Path savingsReport, int duplicates, long duplicateBytes) {
+    public BuildResult {
+        savings = Map.copyOf(savings);
+    }
+
+    /**
+     * @return bytes removed by texture optimisation across the whole build
+     */
+    public long saved() {
+        return savings.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
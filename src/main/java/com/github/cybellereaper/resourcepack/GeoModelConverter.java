@@ -0,0 +1,518 @@
+package com.github.cybellereaper.resourcepack;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Converts Blockbench Bedrock geometry ({@code .geo.json}) into Java edition block/item model JSON.
+ * <p>
+ * The source is read token by token with a {@link JsonReader}; only the cube list is kept in memory. Results are
+ * cached on disk under the SHA-256 of the source bytes and texture id, so a model is converted once no matter how
+ * many packs are built from it. Files that already are Java models pass through unchanged.
+ * <p>
+ * Bone rotations are not applied and cube rotations are snapped to the single-axis 22.5 degree steps Java models allow.
+ * Conversions may run concurrently.
+ */
+public final class GeoModelConverter {
+    /** Bump whenever the output for a given input changes; invalidates the conversion cache and pack manifests. */
+    static final int CONVERTER_VERSION = 1;
+    private static final float MIN_COORDINATE = -16f;
+    private static final float MAX_COORDINATE = 32f;
+    private static final String[] FACES = {"north", "east", "south", "west", "up", "down"};
+
+    private final Path cacheDirectory;
+    private final Logger logger;
+    private final AtomicInteger cacheHits = new AtomicInteger();
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    public GeoModelConverter(Path cacheDirectory, Logger logger) {
+        this.cacheDirectory = cacheDirectory;
+        this.logger = logger;
+    }
+
+    /**
+     * @param file where the source was read from; only named in errors
+     * @param source the raw {@code .geo.json} bytes
+     * @param texture the namespaced texture id every face should use
+     * @return Java model JSON
+     * @throws IOException if the source is not valid JSON or declares a texture size that is not positive
+     */
+    public byte[] convert(Path file, byte[] source, String texture) throws IOException {
+        Path cached = cacheDirectory.resolve(hash(source, texture) + ".json");
+        if (Files.isRegularFile(cached)) {
+            try {
+                byte[] bytes = Files.readAllBytes(cached);
+                cacheHits.incrementAndGet();
+                return bytes;
+            } catch (IOException ex) {
+                logger.log(Level.FINE, "Ignoring unreadable converted model " + cached, ex);
+            }
+        }
+        byte[] converted = convertUncached(file, source, texture);
+        conversions.incrementAndGet();
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path temp = Files.createTempFile(cacheDirectory, "model", ".tmp");
+            Files.write(temp, converted);
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Unable to cache converted model " + cached, ex);
+        }
+        return converted;
+    }
+
+    public int cacheHits() {
+        return cacheHits.get();
+    }
+
+    public int conversions() {
+        return conversions.get();
+    }
+
+    /**
+     * @param model Java model JSON as produced by {@link #convert}
+     * @return the {@code texture_size} the model's UVs were laid out for, or {@code null} if it declares none
+     */
+    public static float[] textureSize(byte[] model) {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(model), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("texture_size") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    return readVector(reader, 2);
+                }
+                reader.skipValue();
+            }
+            return null;
+        } catch (IOException | IllegalStateException | NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @param source a model source file
+     * @return the texture ids a Java model passed through by {@link #convert} refers to, or an empty list if the
+     *         source is Bedrock geometry, whose output only uses the texture given to the converter
+     */
+    public static List<String> javaModelTextures(byte[] source) {
+        List<String> textures = new ArrayList<>();
+        boolean javaModel = false;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("elements") || name.equals("parent")) {
+                    javaModel = true;
+                    reader.skipValue();
+                } else if (name.equals("textures") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        reader.nextName();
+                        if (reader.peek() == JsonToken.STRING) {
+                            textures.add(reader.nextString());
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            return List.of();
+        }
+        return javaModel ? List.copyOf(textures) : List.of();
+    }
+
+    byte[] convertUncached(Path file, byte[] source, String texture) throws IOException {
+        Geometry geometry;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8))) {
+            geometry = readRoot(reader);
+        } catch (IllegalStateException | NumberFormatException ex) {
+            throw new IOException("Invalid Blockbench geometry in " + file, ex);
+        }
+        if (geometry == null) {
+            return source;
+        }
+        // UVs are scaled by 16 / texture size, so zero or negative sizes would write NaN or infinite UVs
+        if (!(geometry.textureWidth > 0f && geometry.textureHeight > 0f)) {
+            throw new IOException("Blockbench geometry in " + file + " declares texture size " + geometry.textureWidth
+                    + "x" + geometry.textureHeight + "; texture_width and texture_height must be positive");
+        }
+        return write(geometry, texture).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the first geometry in the file, or {@code null} if the file is already a Java model
+     */
+    private static Geometry readRoot(JsonReader reader) throws IOException {
+        Geometry geometry = new Geometry();
+        boolean found = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("elements") || name.equals("parent")) {
+                return null;
+            } else if (name.equals("minecraft:geometry") && !found && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    readGeometry(reader, geometry);
+                    found = true;
+                }
+                while (reader.hasNext()) {
+                    reader.skipValue();
+                }
+                reader.endArray();
+            } else if (name.startsWith("geometry.") && !found && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                // format 1.8.0 keys each geometry by its identifier
+                readGeometry(reader, geometry);
+                found = true;
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return geometry;
+    }
+
+    private static void readGeometry(JsonReader reader, Geometry geometry) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "description" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "texture_width" -> geometry.textureWidth = (float) reader.nextDouble();
+                            case "texture_height" -> geometry.textureHeight = (float) reader.nextDouble();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "texturewidth" -> geometry.textureWidth = (float) reader.nextDouble();
+                case "textureheight" -> geometry.textureHeight = (float) reader.nextDouble();
+                case "bones" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readBone(reader, geometry.cubes);
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readBone(JsonReader reader, List<Cube> cubes) throws IOException {
+        boolean mirror = false;
+        int first = cubes.size();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "mirror" -> mirror = reader.nextBoolean();
+                case "cubes" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        cubes.add(readCube(reader));
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (mirror) {
+            for (int i = first; i < cubes.size(); i++) {
+                if (cubes.get(i).mirror == null) {
+                    cubes.get(i).mirror = Boolean.TRUE;
+                }
+            }
+        }
+    }
+
+    private static Cube readCube(JsonReader reader) throws IOException {
+        Cube cube = new Cube();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "origin" -> cube.origin = readVector(reader, 3);
+                case "size" -> cube.size = readVector(reader, 3);
+                case "pivot" -> cube.pivot = readVector(reader, 3);
+                case "rotation" -> cube.rotation = readVector(reader, 3);
+                case "inflate" -> cube.inflate = (float) reader.nextDouble();
+                case "mirror" -> cube.mirror = reader.nextBoolean();
+                case "uv" -> {
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        cube.boxUv = readVector(reader, 2);
+                    } else {
+                        cube.faceUv = readFaceUv(reader);
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return cube;
+    }
+
+    private static Map<String, float[]> readFaceUv(JsonReader reader) throws IOException {
+        Map<String, float[]> faces = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String face = reader.nextName();
+            float[] uv = {0f, 0f};
+            float[] uvSize = {0f, 0f};
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "uv" -> uv = readVector(reader, 2);
+                    case "uv_size" -> uvSize = readVector(reader, 2);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            faces.put(face, new float[]{uv[0], uv[1], uv[0] + uvSize[0], uv[1] + uvSize[1]});
+        }
+        reader.endObject();
+        return faces;
+    }
+
+    private static float[] readVector(JsonReader reader, int length) throws IOException {
+        float[] vector = new float[length];
+        reader.beginArray();
+        for (int i = 0; reader.hasNext(); i++) {
+            if (i < length) {
+                vector[i] = (float) reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return vector;
+    }
+
+    private String write(Geometry geometry, String texture) throws IOException {
+        List<Element> elements = new ArrayList<>(geometry.cubes.size());
+        for (Cube cube : geometry.cubes) {
+            elements.add(Element.of(cube, geometry));
+        }
+        float fit = fitScale(elements);
+        if (fit < 1f) {
+            logger.warning(() -> "Model exceeds the Java model bounds; shrinking it to " + Math.round(fit * 100) + "%.");
+            elements.forEach(element -> element.shrink(fit));
+        }
+
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            json.name("texture_size").beginArray().value(geometry.textureWidth).value(geometry.textureHeight).endArray();
+            json.name("textures").beginObject().name("0").value(texture).name("particle").value(texture).endObject();
+            json.name("elements").beginArray();
+            for (Element element : elements) {
+                element.write(json);
+            }
+            json.endArray();
+            json.endObject();
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return the factor that scales every element around the block centre into the allowed coordinate range
+     */
+    private static float fitScale(List<Element> elements) {
+        float scale = 1f;
+        for (Element element : elements) {
+            for (float[] corner : new float[][]{element.from, element.to}) {
+                for (float value : corner) {
+                    if (value > MAX_COORDINATE) {
+                        scale = Math.min(scale, (MAX_COORDINATE - 8f) / (value - 8f));
+                    } else if (value < MIN_COORDINATE) {
+                        scale = Math.min(scale, (8f - MIN_COORDINATE) / (8f - value));
+                    }
+                }
+            }
+        }
+        return scale;
+    }
+
+    private static String hash(byte[] source, String texture) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((byte) CONVERTER_VERSION);
+            digest.update(texture.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static float round(float value) {
+        return Math.round(value * 10000f) / 10000f;
+    }
+
+    private static final class Geometry {
+        private final List<Cube> cubes = new ArrayList<>();
+        private float textureWidth = 16f;
+        private float textureHeight = 16f;
+    }
+
+    private static final class Cube {
+        private float[] origin = new float[3];
+        private float[] size = new float[3];
+        private float[] pivot;
+        private float[] rotation;
+        private float inflate;
+        private Boolean mirror;
+        private float[] boxUv;
+        private Map<String, float[]> faceUv;
+    }
+
+    /**
+     * A cube in Java model space: x mirrored and the model centred on the block.
+     */
+    private static final class Element {
+        private final float[] from;
+        private final float[] to;
+        private final Map<String, float[]> faces;
+        private float[] origin;
+        private String axis;
+        private float angle;
+
+        private Element(float[] from, float[] to, Map<String, float[]> faces) {
+            this.from = from;
+            this.to = to;
+            this.faces = faces;
+        }
+
+        static Element of(Cube cube, Geometry geometry) {
+            float[] from = {
+                    8f - cube.origin[0] - cube.size[0] - cube.inflate,
+                    cube.origin[1] - cube.inflate,
+                    cube.origin[2] + 8f - cube.inflate
+            };
+            float[] to = {
+                    from[0] + cube.size[0] + 2 * cube.inflate,
+                    from[1] + cube.size[1] + 2 * cube.inflate,
+                    from[2] + cube.size[2] + 2 * cube.inflate
+            };
+            Element element = new Element(from, to, faces(cube, geometry));
+            if (cube.rotation != null) {
+                float[] pivot = cube.pivot == null ? new float[3] : cube.pivot;
+                element.origin = new float[]{8f - pivot[0], pivot[1], pivot[2] + 8f};
+                // Bedrock rotates x and y the other way round once the x axis is mirrored
+                float[] angles = {-cube.rotation[0], -cube.rotation[1], cube.rotation[2]};
+                String[] axes = {"x", "y", "z"};
+                for (int i = 0; i < 3; i++) {
+                    if (angles[i] != 0f) {
+                        element.axis = axes[i];
+                        element.angle = Math.max(-45f, Math.min(45f, Math.round(angles[i] / 22.5f) * 22.5f));
+                        break;
+                    }
+                }
+            }
+            return element;
+        }
+
+        private static Map<String, float[]> faces(Cube cube, Geometry geometry) {
+            Map<String, float[]> pixels = new LinkedHashMap<>();
+            if (cube.faceUv != null) {
+                pixels.putAll(cube.faceUv);
+            } else {
+                float u = cube.boxUv == null ? 0f : cube.boxUv[0];
+                float v = cube.boxUv == null ? 0f : cube.boxUv[1];
+                float w = cube.size[0];
+                float h = cube.size[1];
+                float d = cube.size[2];
+                pixels.put("north", new float[]{u + d, v + d, u + d + w, v + d + h});
+                pixels.put("east", new float[]{u, v + d, u + d, v + d + h});
+                pixels.put("south", new float[]{u + 2 * d + w, v + d, u + 2 * d + 2 * w, v + d + h});
+                pixels.put("west", new float[]{u + d + w, v + d, u + 2 * d + w, v + d + h});
+                pixels.put("up", new float[]{u + d + w, v + d, u + d, v});
+                pixels.put("down", new float[]{u + d + 2 * w, v, u + d + w, v + d});
+                if (Boolean.TRUE.equals(cube.mirror)) {
+                    float[] east = pixels.get("east");
+                    pixels.put("east", pixels.get("west"));
+                    pixels.put("west", east);
+                    pixels.values().forEach(uv -> {
+                        float swap = uv[0];
+                        uv[0] = uv[2];
+                        uv[2] = swap;
+                    });
+                }
+            }
+            Map<String, float[]> faces = new LinkedHashMap<>();
+            float scaleU = 16f / geometry.textureWidth;
+            float scaleV = 16f / geometry.textureHeight;
+            for (String face : FACES) {
+                float[] uv = pixels.get(face);
+                if (uv != null) {
+                    faces.put(face, new float[]{uv[0] * scaleU, uv[1] * scaleV, uv[2] * scaleU, uv[3] * scaleV});
+                }
+            }
+            return faces;
+        }
+
+        void shrink(float scale) {
+            for (float[] point : origin == null ? new float[][]{from, to} : new float[][]{from, to, origin}) {
+                for (int i = 0; i < 3; i++) {
+                    point[i] = 8f + (point[i] - 8f) * scale;
+                }
+            }
+        }
+
+        void write(JsonWriter json) throws IOException {
+            json.beginObject();
+            writeVector(json.name("from"), from);
+            writeVector(json.name("to"), to);
+            if (axis != null) {
+                json.name("rotation").beginObject()
+                        .name("angle").value(angle)
+                        .name("axis").value(axis);
+                writeVector(json.name("origin"), origin);
+                json.endObject();
+            }
+            json.name("faces").beginObject();
+            for (Map.Entry<String, float[]> face : faces.entrySet()) {
+                json.name(face.getKey()).beginObject();
+                writeVector(json.name("uv"), face.getValue());
+                json.name("texture").value("#0");
+                json.endObject();
+            }
+            json.endObject();
+            json.endObject();
+        }
+
+        private static void writeVector(JsonWriter json, float[] vector) throws IOException {
+            json.beginArray();
+            for (float value : vector) {
+                json.value(round(value));
+            }
+            json.endArray();
+        }
+    }
+}
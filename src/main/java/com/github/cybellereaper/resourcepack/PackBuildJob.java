@@ -0,0 +1,157 @@
+package com.github.cybellereaper.resourcepack;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.mob.CustomMob;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs resource pack builds on a background thread, one at a time.
+ * <p>
+ * A build works on the definition snapshot it was submitted with, so reloads during the build do not affect it. A
+ * build requested while another one to the same file is running joins it instead of queueing a second one. Progress
+ * is handed to every watcher on the main thread every {@value #REPORT_INTERVAL_TICKS} ticks. Must be used from the
+ * main thread.
+ */
+public final class PackBuildJob {
+    private static final long REPORT_INTERVAL_TICKS = 40L;
+
+    private final Plugin plugin;
+    private final ResourcePackBuilder builder;
+    private final Consumer<BuildResult> publisher;
+    private final ExecutorService executor;
+    private final Executor mainThread;
+    private Running running;
+
+    /**
+     * @param publisher called on the build thread after every successful build, before the futures complete
+     */
+    public PackBuildJob(Plugin plugin, ResourcePackBuilder builder, Consumer<BuildResult> publisher) {
+        this.plugin = plugin;
+        this.builder = builder;
+        this.publisher = publisher;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NobleItems-PackBuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mainThread = task -> plugin.getServer().getScheduler().runTask(plugin, task);
+    }
+
+    /**
+     * Starts a build, or joins the running one if it writes to the same file.
+     * @param items snapshot of the item definitions
+     * @param mobs snapshot of the mob definitions
+     * @param watcher receives progress on the main thread
+     * @return a future completed on the main thread with the result; it fails with a
+     *         {@link java.util.concurrent.CancellationException} if the build was cancelled, or an
+     *         {@link IllegalStateException} if a build to another file is already running
+     */
+    public CompletableFuture<BuildResult> submit(Path destination, Collection<CustomItem> items, Collection<CustomMob> mobs,
+                                                 Consumer<Progress> watcher) {
+        if (running != null) {
+            if (!running.destination.equals(destination)) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "A build of " + running.destination.getFileName() + " is already running"));
+            }
+            running.watchers.add(watcher);
+            return running.future;
+        }
+        Running job = new Running(destination, watcher);
+        running = job;
+        job.reporter = plugin.getServer().getScheduler().runTaskTimer(plugin, job::report, REPORT_INTERVAL_TICKS, REPORT_INTERVAL_TICKS);
+        List<CustomItem> itemSnapshot = List.copyOf(items);
+        List<CustomMob> mobSnapshot = List.copyOf(mobs);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                BuildResult result = builder.build(destination, itemSnapshot, mobSnapshot, job);
+                publisher.accept(result);
+                return result;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, executor).whenCompleteAsync((result, error) -> {
+            job.reporter.cancel();
+            running = null;
+            if (error == null) {
+                job.future.complete(result);
+            } else {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                job.future.completeExceptionally(cause instanceof UncheckedIOException io ? io.getCause() : cause);
+            }
+        }, mainThread);
+        return job.future;
+    }
+
+    public boolean isRunning() {
+        return running != null;
+    }
+
+    /**
+     * Asks the running build to stop after the entry it is writing.
+     * @return {@code false} if no build is running
+     */
+    public boolean cancel() {
+        if (running == null) {
+            return false;
+        }
+        running.cancelled = true;
+        return true;
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param bytes size of the zip written so far
+     */
+    public record Progress(int written, int total, long bytes) { }
+
+    private static final class Running implements BuildListener {
+        private final Path destination;
+        private final List<Consumer<Progress>> watchers = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<BuildResult> future = new CompletableFuture<>();
+        private volatile Progress latest;
+        private volatile boolean cancelled;
+        private Progress reported;
+        private BukkitTask reporter;
+
+        Running(Path destination, Consumer<Progress> watcher) {
+            this.destination = destination;
+            this.watchers.add(watcher);
+        }
+
+        @Override
+        public void progress(int written, int total, long bytes) {
+            latest = new Progress(written, total, bytes);
+        }
+
+        @Override
+        public boolean cancelled() {
+            return cancelled;
+        }
+
+        void report() {
+            Progress current = latest;
+            if (current != null && current != reported) {
+                reported = current;
+                watchers.forEach(watcher -> watcher.accept(current));
+            }
+        }
+    }
+}
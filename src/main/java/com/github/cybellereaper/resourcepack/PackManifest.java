@@ -0,0 +1,164 @@
+package com.github.cybellereaper.resourcepack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record of the last pack built to a destination: the zip's size and timestamp, plus, per entry, the content hash,
+ * the source file's hash, the stamp it was read with and the textures it names, what was learnt while preparing it,
+ * and where its compressed bytes live in the zip. The next build uses it to skip reading unchanged sources, to copy
+ * their compressed bytes instead of deflating them again, and to check and report on entries it did not prepare.
+ */
+final class PackManifest {
+    private static final int MAGIC = 0x4E49504D;
+    private static final int FORMAT_VERSION = 4;
+
+    private final long zipSize;
+    private final long zipModified;
+    private final Map<String, Entry> entries;
+
+    PackManifest(long zipSize, long zipModified, Map<String, Entry> entries) {
+        this.zipSize = zipSize;
+        this.zipModified = zipModified;
+        this.entries = entries;
+    }
+
+    static PackManifest empty() {
+        return new PackManifest(-1L, -1L, Map.of());
+    }
+
+    /**
+     * @return the manifest, or an empty one if it is missing, unreadable or from another format version
+     */
+    static PackManifest read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return empty();
+            }
+            long zipSize = in.readLong();
+            long zipModified = in.readLong();
+            int count = in.readInt();
+            Map<String, Entry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] hash = new byte[in.readUnsignedByte()];
+                in.readFully(hash);
+                byte[] sourceHash = new byte[in.readUnsignedByte()];
+                in.readFully(sourceHash);
+                long sourceSize = in.readLong();
+                long sourceModified = in.readLong();
+                String[] sourceTextures = new String[in.readUnsignedShort()];
+                for (int j = 0; j < sourceTextures.length; j++) {
+                    sourceTextures[j] = in.readUTF();
+                }
+                int width = in.readInt();
+                int height = in.readInt();
+                float[] textureSize = in.readBoolean() ? new float[]{in.readFloat(), in.readFloat()} : null;
+                long saved = in.readLong();
+                entries.put(name, new Entry(name, hash, sourceHash, sourceSize, sourceModified, List.of(sourceTextures),
+                        width, height, textureSize, saved, in.readInt(), in.readLong(), in.readLong(), in.readLong(),
+                        in.readLong()));
+            }
+            return new PackManifest(zipSize, zipModified, entries);
+        } catch (IOException ex) {
+            return empty();
+        }
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "manifest", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(zipSize);
+                out.writeLong(zipModified);
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    out.writeUTF(entry.name());
+                    out.writeByte(entry.hash().length);
+                    out.write(entry.hash());
+                    out.writeByte(entry.sourceHash().length);
+                    out.write(entry.sourceHash());
+                    out.writeLong(entry.sourceSize());
+                    out.writeLong(entry.sourceModified());
+                    out.writeShort(entry.sourceTextures().size());
+                    for (String texture : entry.sourceTextures()) {
+                        out.writeUTF(texture);
+                    }
+                    out.writeInt(entry.width());
+                    out.writeInt(entry.height());
+                    out.writeBoolean(entry.textureSize() != null);
+                    if (entry.textureSize() != null) {
+                        out.writeFloat(entry.textureSize()[0]);
+                        out.writeFloat(entry.textureSize()[1]);
+                    }
+                    out.writeLong(entry.saved());
+                    out.writeInt(entry.method());
+                    out.writeLong(entry.crc());
+                    out.writeLong(entry.compressedSize());
+                    out.writeLong(entry.size());
+                    out.writeLong(entry.dataOffset());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static PackManifest of(Path zip, Collection<Entry> entries) throws IOException {
+        Map<String, Entry> byName = new HashMap<>(entries.size() * 2);
+        entries.forEach(entry -> byName.put(entry.name(), entry));
+        return new PackManifest(Files.size(zip), Files.getLastModifiedTime(zip).toMillis(), byName);
+    }
+
+    /**
+     * @return {@code true} if {@code zip} still is the file this manifest describes, so its offsets can be trusted
+     */
+    boolean describes(Path zip) {
+        try {
+            return Files.isRegularFile(zip) && Files.size(zip) == zipSize
+                    && Files.getLastModifiedTime(zip).toMillis() == zipModified;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    Entry get(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * @param hash identifies the entry's content, including anything besides the source that shapes it
+     * @param sourceHash SHA-256 of the source file, or empty for generated entries
+     * @param sourceSize size of the source file when it was hashed, or {@code -1} for generated entries
+     * @param sourceModified modification time of the source file in millis, or {@code -1} for generated entries
+     * @param sourceTextures texture ids the source names if it is a Java model, otherwise empty
+     * @param width texture width, or 0 if the entry is not a readable PNG
+     * @param textureSize texture size declared by a converted model, or {@code null}
+     * @param saved bytes the PNG optimiser removed from the texture
+     */
+    record Entry(String name, byte[] hash, byte[] sourceHash, long sourceSize, long sourceModified,
+                 List<String> sourceTextures, int width, int height, float[] textureSize, long saved, int method,
+                 long crc, long compressedSize, long size, long dataOffset) {
+        boolean sameContent(byte[] otherHash) {
+            return Arrays.equals(hash, otherHash);
+        }
+    }
+}
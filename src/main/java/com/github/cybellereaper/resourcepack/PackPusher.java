@@ -0,0 +1,53 @@
+package com.github.cybellereaper.resourcepack;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Sends the current pack to everyone online whenever a new build is published, and to players as they join.
+ * The pack always uses the same id, so clients replace their previous NobleItems pack instead of stacking a new one.
+ */
+public final class PackPusher implements Listener {
+    private static final UUID PACK_ID = UUID.nameUUIDFromBytes("nobleitems:resourcepack".getBytes(StandardCharsets.UTF_8));
+
+    private final Plugin plugin;
+    private final String url;
+    private final boolean required;
+    private byte[] sha1;
+
+    /**
+     * @param url the address players download the pack from
+     * @param required whether players who decline the pack are disconnected
+     */
+    public PackPusher(Plugin plugin, String url, boolean required) {
+        this.plugin = plugin;
+        this.url = url;
+        this.required = required;
+    }
+
+    /**
+     * Makes {@code sha1} the current pack and sends it to every online player. Must be called on the main thread.
+     */
+    public void push(byte[] sha1) {
+        this.sha1 = sha1;
+        plugin.getServer().getOnlinePlayers().forEach(this::send);
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        if (sha1 != null) {
+            send(event.getPlayer());
+        }
+    }
+
+    private void send(Player player) {
+        player.setResourcePack(PACK_ID, url, sha1, (Component) null, required);
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.cybellereaper.resourcepack;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves the built resource pack over HTTP from the JDK's embedded server.
+ * <p>
+ * The file is never loaded into memory: responses are streamed from a {@link FileChannel} with
+ * {@link FileChannel#transferTo}. The pack's SHA-1 is computed once per {@link #publish} and doubles as its ETag, so
+ * clients that already have the pack get a {@code 304 Not Modified} for {@code If-None-Match}. If the file on disk
+ * no longer matches what was published, e.g. a build is being moved into place, requests get a {@code 503} until the
+ * next publish.
+ */
+public final class PackServer {
+    private static final int THREADS = 2;
+
+    private final InetSocketAddress address;
+    private final Logger logger;
+    private volatile Published published;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PackServer(InetSocketAddress address, Logger logger) {
+        this.address = address;
+        this.logger = logger;
+    }
+
+    /**
+     * @throws IOException if the address cannot be bound
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(address, 0);
+        executor = Executors.newFixedThreadPool(THREADS, daemonThreads());
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return the bound port, which differs from the configured one when that was 0
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Hashes {@code pack} and starts serving it.
+     * @return the pack's SHA-1, as clients expect it in the resource pack request
+     * @throws IOException if the file cannot be read
+     */
+    public byte[] publish(Path pack) throws IOException {
+        long size = Files.size(pack);
+        long modified = Files.getLastModifiedTime(pack).toMillis();
+        byte[] sha1 = sha1(pack);
+        published = new Published(pack, size, modified, sha1);
+        return sha1;
+    }
+
+    /**
+     * @return the SHA-1 of the pack being served, or {@code null} if nothing was published yet
+     */
+    public byte[] sha1() {
+        Published current = published;
+        return current == null ? null : current.sha1();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = method.equals("HEAD");
+            if (!head && !method.equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Published current = published;
+            if (current == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String etag = '"' + HexFormat.of().formatHex(current.sha1()) + '"';
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            try (FileChannel file = FileChannel.open(current.file(), StandardOpenOption.READ)) {
+                if (file.size() != current.size()
+                        || Files.getLastModifiedTime(current.file()).toMillis() != current.modified()) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/zip");
+                if (head) {
+                    exchange.getResponseHeaders().set("Content-Length", Long.toString(current.size()));
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                exchange.sendResponseHeaders(200, current.size());
+                try (OutputStream body = exchange.getResponseBody()) {
+                    WritableByteChannel target = Channels.newChannel(body);
+                    long position = 0;
+                    while (position < current.size()) {
+                        position += file.transferTo(position, current.size() - position, target);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            logger.log(Level.FINE, "Resource pack download from " + exchange.getRemoteAddress() + " failed", ex);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] sha1(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-1 is not available", ex);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "NobleItems-PackServer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Published(Path file, long size, long modified, byte[] sha1) { }
+}
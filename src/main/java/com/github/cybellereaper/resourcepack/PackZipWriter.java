@@ -0,0 +1,189 @@
+package com.github.cybellereaper.resourcepack;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal zip writer that, unlike {@link java.util.zip.ZipOutputStream}, can also append entries whose compressed
+ * bytes were copied verbatim from an earlier pack. Sizes and CRCs are always known up front, so no data descriptors
+ * are written. Entries carry a fixed 1980-01-01 timestamp and UTF-8 names. Zip64 is not supported: a pack that
+ * would need it, with more than {@value #MAX_ENTRIES} entries or 4 GiB or more of data, fails with an
+ * {@link IOException} rather than being written with a corrupt central directory.
+ * <p>
+ * Compression is separate from writing so callers can compress entries on several threads and append the results in
+ * order.
+ */
+final class PackZipWriter implements Closeable {
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int VERSION = 20;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (1 << 5) | 1;
+    /** Entry counts of 0xFFFF and sizes or offsets of 0xFFFFFFFF are zip64 markers. */
+    static final int MAX_ENTRIES = 0xFFFE;
+    private static final long MAX_32 = 0xFFFFFFFFL;
+
+    private final OutputStream out;
+    private final List<WrittenEntry> written = new ArrayList<>();
+    private long position;
+
+    PackZipWriter(Path file) throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+    }
+
+    /**
+     * Compresses {@code data} with the given method. Safe to call from any thread.
+     */
+    static Compressed compress(byte[] data, int method) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return new Compressed(method, crc.getValue(), data.length, method == DEFLATED ? deflate(data) : data);
+    }
+
+    /**
+     * Appends an entry whose compressed bytes are already known, either from {@link #compress} or copied from the
+     * previous build.
+     */
+    WrittenEntry writeRaw(String name, Compressed entry) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = entry.data();
+        long headerOffset = position;
+        if (written.size() >= MAX_ENTRIES) {
+            throw new IOException("Resource pack has more than " + MAX_ENTRIES + " entries, which needs zip64");
+        }
+        if (nameBytes.length > 0xFFFF) {
+            throw new IOException("Entry name is too long for a zip file: " + name);
+        }
+        if (headerOffset >= MAX_32 || compressed.length >= MAX_32 || entry.size() >= MAX_32) {
+            throw new IOException("Resource pack exceeds 4 GiB at " + name + ", which needs zip64");
+        }
+        writeInt(LOCAL_HEADER);
+        writeShort(VERSION);
+        writeShort(UTF8_FLAG);
+        writeShort(entry.method());
+        writeShort(DOS_TIME);
+        writeShort(DOS_DATE);
+        writeInt((int) entry.crc());
+        writeInt(compressed.length);
+        writeInt((int) entry.size());
+        writeShort(nameBytes.length);
+        writeShort(0);
+        writeBytes(nameBytes);
+        long dataOffset = position;
+        writeBytes(compressed);
+        WrittenEntry written = new WrittenEntry(name, entry.method(), entry.crc(), compressed.length, entry.size(),
+                headerOffset, dataOffset);
+        this.written.add(written);
+        return written;
+    }
+
+    /**
+     * @return bytes written so far
+     */
+    long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long centralOffset = position;
+            for (WrittenEntry entry : written) {
+                byte[] nameBytes = entry.name().getBytes(StandardCharsets.UTF_8);
+                writeInt(CENTRAL_HEADER);
+                writeShort(VERSION);
+                writeShort(VERSION);
+                writeShort(UTF8_FLAG);
+                writeShort(entry.method());
+                writeShort(DOS_TIME);
+                writeShort(DOS_DATE);
+                writeInt((int) entry.crc());
+                writeInt((int) entry.compressedSize());
+                writeInt((int) entry.size());
+                writeShort(nameBytes.length);
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                writeInt(0);
+                writeInt((int) entry.headerOffset());
+                writeBytes(nameBytes);
+            }
+            long centralSize = position - centralOffset;
+            if (centralOffset >= MAX_32 || centralSize >= MAX_32) {
+                throw new IOException("Resource pack exceeds 4 GiB, which needs zip64");
+            }
+            writeInt(END_OF_CENTRAL_DIRECTORY);
+            writeShort(0);
+            writeShort(0);
+            writeShort(written.size());
+            writeShort(written.size());
+            writeInt((int) centralSize);
+            writeInt((int) centralOffset);
+            writeShort(0);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                compressed.write(buffer, 0, length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        position += 2;
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeShort(value & 0xFFFF);
+        writeShort((value >>> 16) & 0xFFFF);
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    /**
+     * An entry's payload ready to be appended.
+     * @param size uncompressed size
+     * @param data the bytes as they are stored in the zip
+     */
+    record Compressed(int method, long crc, long size, byte[] data) { }
+
+    /**
+     * Where an entry ended up in the zip.
+     * @param dataOffset offset of the first compressed byte, just past the local header
+     */
+    record WrittenEntry(String name, int method, long crc, long compressedSize, long size, long headerOffset, long dataOffset) { }
+}
@@ -0,0 +1,304 @@
+package com.github.cybellereaper.resourcepack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Lossless PNG recompression for pack textures.
+ * <p>
+ * The file is validated chunk by chunk (signature, lengths, CRCs, IHDR first, IEND last). Ancillary chunks the
+ * client never reads are dropped; only IHDR, PLTE, tRNS, IDAT and IEND survive. Non-interlaced images are then
+ * unfiltered and re-encoded with each fixed filter type plus a per-row minimum-sum heuristic, all at the strongest
+ * deflate level, and the smallest stream wins. The original is returned whenever the result would not be smaller.
+ */
+public final class PngOptimizer {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final Set<String> KEPT_CHUNKS = Set.of("IHDR", "PLTE", "tRNS", "IDAT", "IEND");
+    private static final int LEVEL = Deflater.BEST_COMPRESSION;
+    /** Bump whenever the filter search or encoding changes, so incremental builds optimise cached textures again. */
+    private static final int VERSION = 1;
+    /**
+     * Everything besides the input that shapes the output; part of each texture's entry hash in the pack manifest.
+     */
+    static final String SETTINGS = VERSION + ":" + new TreeSet<>(KEPT_CHUNKS) + ":" + LEVEL;
+    /** Refuse to inflate images above this many raw bytes; pack textures are far smaller. */
+    private static final long MAX_RAW_BYTES = 256L << 20;
+
+    private PngOptimizer() {
+    }
+
+    /**
+     * @return the optimised image, or the input itself if nothing could be saved
+     * @throws IOException if {@code png} is not a well-formed PNG
+     */
+    public static Result optimize(byte[] png) throws IOException {
+        Parsed parsed = parse(png);
+        byte[] idat = parsed.interlaced() ? parsed.idat() : refilter(parsed);
+        byte[] rebuilt = write(parsed, idat);
+        byte[] best = rebuilt.length < png.length ? rebuilt : png;
+        return new Result(best, parsed.width(), parsed.height(), png.length - best.length);
+    }
+
+    /**
+     * @param data the bytes to put in the pack
+     * @param saved bytes saved compared to the input
+     */
+    public record Result(byte[] data, int width, int height, long saved) { }
+
+    private record Parsed(int width, int height, int bitDepth, int colorType, boolean interlaced,
+                          byte[] header, byte[] palette, byte[] transparency, byte[] idat) { }
+
+    private static Parsed parse(byte[] png) throws IOException {
+        if (png.length < SIGNATURE.length || !Arrays.equals(png, 0, SIGNATURE.length, SIGNATURE, 0, SIGNATURE.length)) {
+            throw new IOException("Not a PNG file");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(png, SIGNATURE.length, png.length - SIGNATURE.length);
+        byte[] header = null;
+        byte[] palette = null;
+        byte[] transparency = null;
+        ByteArrayOutputStream idat = new ByteArrayOutputStream(png.length);
+        boolean ended = false;
+        while (!ended) {
+            if (buffer.remaining() < 12) {
+                throw new IOException("Truncated PNG chunk");
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() - 8) {
+                throw new IOException("Invalid PNG chunk length " + length);
+            }
+            int typeOffset = buffer.position();
+            String type = new String(png, typeOffset, 4, StandardCharsets.US_ASCII);
+            CRC32 crc = new CRC32();
+            crc.update(png, typeOffset, 4 + length);
+            byte[] data = Arrays.copyOfRange(png, typeOffset + 4, typeOffset + 4 + length);
+            buffer.position(typeOffset + 4 + length);
+            if ((int) crc.getValue() != buffer.getInt()) {
+                throw new IOException("Bad CRC in PNG chunk " + type);
+            }
+            if (header == null && !type.equals("IHDR")) {
+                throw new IOException("PNG does not start with IHDR");
+            }
+            switch (type) {
+                case "IHDR" -> header = data;
+                case "PLTE" -> palette = data;
+                case "tRNS" -> transparency = data;
+                case "IDAT" -> idat.writeBytes(data);
+                case "IEND" -> ended = true;
+                default -> {
+                    if (Character.isUpperCase(type.charAt(0))) {
+                        throw new IOException("Unknown critical PNG chunk " + type);
+                    }
+                }
+            }
+        }
+        if (header.length != 13) {
+            throw new IOException("Invalid IHDR length " + header.length);
+        }
+        ByteBuffer ihdr = ByteBuffer.wrap(header);
+        int width = ihdr.getInt();
+        int height = ihdr.getInt();
+        int bitDepth = ihdr.get() & 0xFF;
+        int colorType = ihdr.get() & 0xFF;
+        ihdr.get();
+        ihdr.get();
+        boolean interlaced = ihdr.get() != 0;
+        if (width <= 0 || height <= 0 || channels(colorType) == 0) {
+            throw new IOException("Invalid PNG header " + width + "x" + height + " color type " + colorType);
+        }
+        if (colorType == 3 && palette == null) {
+            throw new IOException("Indexed PNG without palette");
+        }
+        return new Parsed(width, height, bitDepth, colorType, interlaced, header, palette, transparency, idat.toByteArray());
+    }
+
+    private static byte[] refilter(Parsed parsed) throws IOException {
+        int bitsPerPixel = channels(parsed.colorType()) * parsed.bitDepth();
+        int bpp = Math.max(1, bitsPerPixel / 8);
+        int rowBytes = (int) (((long) parsed.width() * bitsPerPixel + 7) / 8);
+        long rawLength = (long) (rowBytes + 1) * parsed.height();
+        if (rawLength > MAX_RAW_BYTES) {
+            return parsed.idat();
+        }
+        byte[] raw = inflate(parsed.idat(), (int) rawLength);
+        byte[][] rows = unfilter(raw, rowBytes, bpp, parsed.height());
+
+        byte[] best = parsed.idat();
+        for (int strategy = 0; strategy <= 5; strategy++) {
+            byte[] candidate = deflate(filter(rows, rowBytes, bpp, strategy));
+            if (candidate.length < best.length) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static byte[][] unfilter(byte[] raw, int rowBytes, int bpp, int height) throws IOException {
+        byte[][] rows = new byte[height][rowBytes];
+        byte[] previous = new byte[rowBytes];
+        for (int y = 0; y < height; y++) {
+            int offset = y * (rowBytes + 1);
+            int filter = raw[offset];
+            byte[] row = rows[y];
+            for (int x = 0; x < rowBytes; x++) {
+                int value = raw[offset + 1 + x] & 0xFF;
+                int left = x >= bpp ? row[x - bpp] & 0xFF : 0;
+                int up = previous[x] & 0xFF;
+                int upLeft = x >= bpp ? previous[x - bpp] & 0xFF : 0;
+                row[x] = (byte) switch (filter) {
+                    case 0 -> value;
+                    case 1 -> value + left;
+                    case 2 -> value + up;
+                    case 3 -> value + ((left + up) >>> 1);
+                    case 4 -> value + paeth(left, up, upLeft);
+                    default -> throw new IOException("Invalid PNG filter type " + filter);
+                };
+            }
+            previous = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @param strategy a fixed filter type 0-4, or 5 to pick per row the filter with the smallest sum of absolute
+     *                 values
+     */
+    private static byte[] filter(byte[][] rows, int rowBytes, int bpp, int strategy) {
+        byte[] out = new byte[rows.length * (rowBytes + 1)];
+        byte[] previous = new byte[rowBytes];
+        byte[] scratch = new byte[rowBytes];
+        for (int y = 0; y < rows.length; y++) {
+            int offset = y * (rowBytes + 1);
+            int type = strategy;
+            if (strategy == 5) {
+                long bestSum = Long.MAX_VALUE;
+                for (int candidate = 0; candidate <= 4; candidate++) {
+                    filterRow(rows[y], previous, bpp, candidate, scratch, 0);
+                    long sum = 0;
+                    for (byte b : scratch) {
+                        sum += Math.abs(b);
+                    }
+                    if (sum < bestSum) {
+                        bestSum = sum;
+                        type = candidate;
+                    }
+                }
+            }
+            out[offset] = (byte) type;
+            filterRow(rows[y], previous, bpp, type, out, offset + 1);
+            previous = rows[y];
+        }
+        return out;
+    }
+
+    private static void filterRow(byte[] row, byte[] previous, int bpp, int type, byte[] out, int offset) {
+        for (int x = 0; x < row.length; x++) {
+            int value = row[x] & 0xFF;
+            int left = x >= bpp ? row[x - bpp] & 0xFF : 0;
+            int up = previous[x] & 0xFF;
+            int upLeft = x >= bpp ? previous[x - bpp] & 0xFF : 0;
+            out[offset + x] = (byte) switch (type) {
+                case 1 -> value - left;
+                case 2 -> value - up;
+                case 3 -> value - ((left + up) >>> 1);
+                case 4 -> value - paeth(left, up, upLeft);
+                default -> value;
+            };
+        }
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceLeft = Math.abs(estimate - left);
+        int distanceUp = Math.abs(estimate - up);
+        int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private static byte[] write(Parsed parsed, byte[] idat) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(idat.length + 128);
+        out.writeBytes(SIGNATURE);
+        writeChunk(out, "IHDR", parsed.header());
+        if (parsed.palette() != null) {
+            writeChunk(out, "PLTE", parsed.palette());
+        }
+        if (parsed.transparency() != null) {
+            writeChunk(out, "tRNS", parsed.transparency());
+        }
+        writeChunk(out, "IDAT", idat);
+        writeChunk(out, "IEND", new byte[0]);
+        return out.toByteArray();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeBytes(ByteBuffer.allocate(4).putInt(data.length).array());
+        out.writeBytes(typeBytes);
+        out.writeBytes(data);
+        out.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+
+    private static byte[] inflate(byte[] data, int expectedLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] out = new byte[expectedLength];
+            int length = 0;
+            while (length < expectedLength && !inflater.finished()) {
+                int read = inflater.inflate(out, length, expectedLength - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != expectedLength) {
+                throw new IOException("PNG image data is " + length + " bytes, expected " + expectedLength);
+            }
+            return out;
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupt PNG image data", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(LEVEL);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int channels(int colorType) {
+        return switch (colorType) {
+            case 0, 3 -> 1;
+            case 2 -> 3;
+            case 4 -> 2;
+            case 6 -> 4;
+            default -> 0;
+        };
+    }
+}
@@ -2,109 +2,228 @@ package com.github.cybellereaper.resourcepack;
 
 import com.github.cybellereaper.item.CustomItem;
 import com.github.cybellereaper.item.CustomItemRegistry;
+import com.github.cybellereaper.metrics.Metrics;
+import com.github.cybellereaper.metrics.PackBuildEvent;
 import com.github.cybellereaper.model.BlockbenchModel;
 import com.github.cybellereaper.mob.CustomMob;
 import com.github.cybellereaper.mob.CustomMobRegistry;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * Builds a lightweight resource pack for Blockbench models and textures defined in NobleItems configuration files.
+ * <p>
+ * The pack is streamed straight into the zip: generated JSON comes from memory and assets are read once from their
+ * source files. Entries are written in name order with a fixed timestamp, so identical inputs produce identical
+ * bytes, and PNGs are stored rather than deflated a second time.
+ * <p>
+ * Builds are incremental: a {@link PackManifest} kept under {@code cache/packs} records every entry's content hash
+ * and source file stamp. Unchanged sources are not even read, and unchanged entries have their compressed bytes
+ * copied from the previous zip, so a rebuild costs roughly the size of what changed.
+ * <p>
+ * Changed entries are converted, optimised ({@link PngOptimizer}) and compressed on a small pool sized to the CPU,
+ * a bounded window ahead of the zip writer so only a few payloads are in memory at once; only the final append to
+ * the zip is sequential.
+ * <p>
+ * Assets are deduplicated by content hash: a texture or model used under several paths is packed once, and every
+ * generated reference to a duplicate is rewritten to the kept path. Textures that Java models name directly are
+ * always packed, as those models are copied as they are.
  */
 public final class ResourcePackBuilder {
-    private static final int PACK_FORMAT_1_21 = 34;
+    /**
+     * Pack format of 1.21.4, the first release that reads the {@code items/} item definitions this pack writes.
+     */
+    private static final int MIN_PACK_FORMAT = 46;
+    /**
+     * Pack format of 1.21.9 and 1.21.10, the releases the plugin targets.
+     */
+    private static final int MAX_PACK_FORMAT = 69;
+    /**
+     * Entries prepared ahead of the zip writer per pool thread; bounds how many compressed payloads are held at once.
+     */
+    private static final int PREPARED_AHEAD_PER_THREAD = 4;
 
     private final Path dataFolder;
     private final Logger logger;
     private final CustomItemRegistry itemRegistry;
     private final CustomMobRegistry mobRegistry;
+    private final GeoModelConverter modelConverter;
 
     public ResourcePackBuilder(Path dataFolder, Logger logger, CustomItemRegistry itemRegistry, CustomMobRegistry mobRegistry) {
         this.dataFolder = dataFolder;
         this.logger = logger;
         this.itemRegistry = itemRegistry;
         this.mobRegistry = mobRegistry;
+        this.modelConverter = new GeoModelConverter(dataFolder.resolve("cache/models"), logger);
     }
 
     /**
      * Builds a zip file containing a resource pack for every Blockbench asset referenced in the loaded definitions.
      * @param destination where the pack zip should be written
-     * @return the destination path for convenience
+     * @return what was written and how much of the previous build could be reused
+     * @throws IOException if any file operation fails
+     */
+    public BuildResult build(Path destination) throws IOException {
+        return build(destination, List.copyOf(itemRegistry.values()), List.copyOf(mobRegistry.values()), BuildListener.NONE);
+    }
+
+    /**
+     * Builds a pack from the given definitions rather than the live registries, so it can run off the main thread
+     * while definitions are reloaded.
+     * @param items snapshot of the item definitions
+     * @param mobs snapshot of the mob definitions
+     * @param listener receives progress and may cancel the build
+     * @throws CancellationException if the listener cancelled the build; the previous pack is left untouched
      * @throws IOException if any file operation fails
      */
-    public Path build(Path destination) throws IOException {
-        Path working = Files.createTempDirectory("nobleitems-pack");
+    public BuildResult build(Path destination, Collection<CustomItem> items, Collection<CustomMob> mobs,
+                             BuildListener listener) throws IOException {
+        long start = System.nanoTime();
+        Path manifestFile = dataFolder.resolve("cache/packs").resolve(destination.getFileName() + ".manifest");
+        PackManifest previous = PackManifest.read(manifestFile);
+        SortedMap<String, PackEntry> entries = new TreeMap<>();
+        Map<String, String> textureModels = new HashMap<>();
+        writePackMcmeta(entries);
+        copyAssets(entries, textureModels, items, mobs);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, assetThreads());
+        BuildResult result = null;
         try {
-            writePackMcmeta(working);
-            copyAssets(working);
-            writeItemOverrides(working);
-            zipPack(working, destination);
+            Map<String, SourceStamp> stamps = hashSources(entries, previous, pool);
+            Deduplication deduplication = deduplicate(entries, stamps, textureModels);
+            writeItemOverrides(entries, items, deduplication.modelAliases());
+            writeMobItemModels(entries, mobs, deduplication.modelAliases());
+            WriteStats stats = writeZip(entries, stamps, textureModels, previous, manifestFile, destination, listener, pool,
+                    threads * PREPARED_AHEAD_PER_THREAD);
+            Path report = writeSavingsReport(manifestFile.resolveSibling(destination.getFileName() + ".savings.txt"),
+                    stats.savings());
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            result = new BuildResult(destination, entries.size(), stats.reused(), Files.size(destination), millis,
+                    stats.savings(), report, deduplication.duplicates(), deduplication.bytes());
+            return result;
         } finally {
-            deleteRecursive(working);
+            pool.shutdownNow();
+            long elapsed = Metrics.PACK_BUILD.record(start, result != null);
+            PackBuildEvent.emit(entries.size(), result == null ? 0 : result.reused(), result == null ? 0L : result.bytes(),
+                    result != null, elapsed);
         }
-        return destination;
     }
 
-    private void writePackMcmeta(Path root) throws IOException {
+    /**
+     * Declares the supported range both ways: clients from 1.21.9 on read {@code min_format}/{@code max_format},
+     * older ones {@code pack_format} and {@code supported_formats}.
+     */
+    private void writePackMcmeta(Map<String, PackEntry> entries) {
         String json = "{" +
                 "\"pack\":{" +
-                "\"pack_format\":" + PACK_FORMAT_1_21 + ',' +
+                "\"pack_format\":" + MIN_PACK_FORMAT + ',' +
+                "\"supported_formats\":[" + MIN_PACK_FORMAT + ',' + MAX_PACK_FORMAT + "]," +
+                "\"min_format\":" + MIN_PACK_FORMAT + ',' +
+                "\"max_format\":" + MAX_PACK_FORMAT + ',' +
                 "\"description\":\"NobleItems Blockbench pack\"" +
                 "}}";
-        Path meta = root.resolve("pack.mcmeta");
-        Files.createDirectories(meta.getParent());
-        Files.writeString(meta, json);
+        entries.put("pack.mcmeta", PackEntry.generated(json));
     }
 
-    private void copyAssets(Path root) {
-        itemRegistry.values().forEach(item -> copyBlockbenchAssets(root, item.blockbench()));
-        mobRegistry.values().forEach(mob -> copyBlockbenchAssets(root, mob.blockbench()));
+    private void copyAssets(Map<String, PackEntry> entries, Map<String, String> textureModels,
+                            Collection<CustomItem> items, Collection<CustomMob> mobs) {
+        items.forEach(item -> copyBlockbenchAssets(entries, textureModels, item.blockbench()));
+        mobs.forEach(mob -> copyBlockbenchAssets(entries, textureModels, mob.blockbench()));
     }
 
-    private void copyBlockbenchAssets(Path root, BlockbenchModel model) {
+    /**
+     * @param textureModels collects, per texture entry, the model entry whose UVs it must fit
+     */
+    private void copyBlockbenchAssets(Map<String, PackEntry> entries, Map<String, String> textureModels,
+                                      BlockbenchModel model) {
         if (model == null || model.equals(BlockbenchModel.NONE)) {
             return;
         }
-        copyIfExists(model.modelPath(), root.resolve("assets/nobleitems").resolve(model.modelPath()));
-        copyIfExists(model.texturePath(), root.resolve("assets/nobleitems").resolve(model.texturePath()));
+        convertIfExists(entries, model);
+        copyIfExists(entries, model.texturePath(), model.textureResource());
+        if (model.modelPath() != null && !model.modelPath().isEmpty()
+                && model.texturePath() != null && !model.texturePath().isEmpty()) {
+            textureModels.putIfAbsent(assetEntryName(model.texturePath()), assetEntryName(model.modelPath()));
+        }
     }
 
-    private void writeItemOverrides(Path root) throws IOException {
+    /**
+     * @param aliases duplicate model ids mapped to the model id that was kept
+     */
+    private void writeItemOverrides(Map<String, PackEntry> entries, Collection<CustomItem> items, Map<String, String> aliases) {
         Map<String, List<OverrideEntry>> overrides = new HashMap<>();
-        for (CustomItem item : itemRegistry.values()) {
+        for (CustomItem item : items) {
             if (item.customModelData() <= 0 || item.blockbench() == null || item.blockbench().equals(BlockbenchModel.NONE)) {
                 continue;
             }
             String material = item.material().toLowerCase();
-            String modelResource = toModelResource(item.blockbench());
+            String modelResource = aliases.getOrDefault(item.blockbench().modelResource(), item.blockbench().modelResource());
             overrides.computeIfAbsent(material, key -> new ArrayList<>())
                     .add(new OverrideEntry(item.customModelData(), modelResource));
         }
 
         for (Map.Entry<String, List<OverrideEntry>> entry : overrides.entrySet()) {
             entry.getValue().sort(Comparator.comparingInt(OverrideEntry::customModelData));
-            Path itemModel = root.resolve("assets/minecraft/models/item/" + entry.getKey().toLowerCase() + ".json");
-            Files.createDirectories(itemModel.getParent());
             String json = generateItemModelJson(entry.getKey(), entry.getValue());
-            Files.writeString(itemModel, json);
+            entries.put("assets/minecraft/models/item/" + entry.getKey().toLowerCase() + ".json", PackEntry.generated(json));
+        }
+    }
+
+    /**
+     * Writes an item model definition for every mob model so display entities can show it through the
+     * {@code item_model} component. The definition keeps the mob's own id but points at the deduplicated model.
+     */
+    private void writeMobItemModels(Map<String, PackEntry> entries, Collection<CustomMob> mobs, Map<String, String> aliases) {
+        for (CustomMob mob : mobs) {
+            if (mob.blockbench() == null || mob.blockbench().equals(BlockbenchModel.NONE)) {
+                continue;
+            }
+            String resource = mob.blockbench().modelResource();
+            String model = aliases.getOrDefault(resource, resource);
+            entries.put("assets/nobleitems/items/" + resource.substring("nobleitems:".length()) + ".json",
+                    PackEntry.generated("{\"model\":{\"type\":\"minecraft:model\",\"model\":\"" + model + "\"}}"));
         }
     }
 
-    private String generateItemModelJson(String material, List<OverrideEntry> overrides) {
+    static String generateItemModelJson(String material, List<OverrideEntry> overrides) {
         String parent = isHandheld(material) ? "minecraft:item/handheld" : "minecraft:item/generated";
         String texture = "minecraft:item/" + material.toLowerCase();
         StringBuilder builder = new StringBuilder();
@@ -133,19 +252,19 @@ public final class ResourcePackBuilder {
         return builder.toString();
     }
 
-    private String toModelResource(BlockbenchModel model) {
-        String path = Optional.ofNullable(model.modelPath()).orElse("");
-        String normalized = path.replace('\\', '/');
-        if (normalized.startsWith("models/")) {
-            normalized = normalized.substring("models/".length());
+    private void convertIfExists(Map<String, PackEntry> entries, BlockbenchModel model) {
+        if (model.modelPath() == null || model.modelPath().isEmpty()) {
+            return;
         }
-        if (normalized.endsWith(".json")) {
-            normalized = normalized.substring(0, normalized.length() - 5);
+        Path source = dataFolder.resolve(model.modelPath());
+        if (!Files.exists(source)) {
+            logger.warning("Missing Blockbench asset: " + source);
+            return;
         }
-        return "nobleitems:" + normalized;
+        entries.put(assetEntryName(model.modelPath()), new PackEntry(source, null, model.modelResource(), model.textureResource()));
     }
 
-    private void copyIfExists(String relativePath, Path destination) {
+    private void copyIfExists(Map<String, PackEntry> entries, String relativePath, String resource) {
         if (relativePath == null || relativePath.isEmpty()) {
             return;
         }
@@ -154,57 +273,416 @@ public final class ResourcePackBuilder {
             logger.warning("Missing Blockbench asset: " + source);
             return;
         }
+        entries.put(assetEntryName(relativePath), new PackEntry(source, null, resource, null));
+    }
+
+    private static String assetEntryName(String relativePath) {
+        return "assets/nobleitems/" + relativePath.replace('\\', '/');
+    }
+
+    private static boolean isHandheld(String material) {
+        String name = material.toUpperCase();
+        return name.contains("SWORD") || name.contains("AXE") || name.contains("HOE") || name.contains("PICKAXE") || name.contains("SHOVEL");
+    }
+
+    /**
+     * Reads every source file's stamp and content hash on the asset pool. A file whose stamp matches the previous
+     * build keeps its recorded hash and texture references without being read. Entries whose source cannot be read
+     * are dropped.
+     */
+    private Map<String, SourceStamp> hashSources(SortedMap<String, PackEntry> entries, PackManifest previous,
+                                                 ExecutorService pool) throws IOException {
+        Map<String, Future<SourceStamp>> futures = new LinkedHashMap<>();
+        entries.forEach((name, entry) -> {
+            if (entry.source() != null) {
+                PackManifest.Entry old = previous.get(name);
+                futures.put(name, pool.submit(() -> stamp(entry.source(), entry.modelTexture() != null, old)));
+            }
+        });
+        Map<String, SourceStamp> stamps = new HashMap<>(futures.size() * 2);
+        for (Map.Entry<String, Future<SourceStamp>> future : futures.entrySet()) {
+            SourceStamp stamp = await(future.getValue());
+            if (stamp == null) {
+                entries.remove(future.getKey());
+            } else {
+                stamps.put(future.getKey(), stamp);
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * @param model whether the source is a model, whose texture references are recorded
+     */
+    private SourceStamp stamp(Path source, boolean model, PackManifest.Entry old) {
         try {
-            Files.createDirectories(destination.getParent());
-            Files.copy(source, destination);
+            long size = Files.size(source);
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            if (old != null && old.sourceSize() == size && old.sourceModified() == modified && old.sourceHash().length > 0) {
+                return new SourceStamp(old.sourceHash(), size, modified, old.sourceTextures());
+            }
+            if (model) {
+                byte[] bytes = Files.readAllBytes(source);
+                return new SourceStamp(sha256(bytes, null), size, modified, GeoModelConverter.javaModelTextures(bytes));
+            }
+            return new SourceStamp(sha256(source), size, modified, List.of());
         } catch (IOException ex) {
-            logger.log(Level.SEVERE, "Failed to copy Blockbench asset " + source, ex);
+            logger.log(Level.SEVERE, "Failed to add file to resource pack: " + source, ex);
+            return null;
         }
     }
 
-    private boolean isHandheld(String material) {
-        String name = material.toUpperCase();
-        return name.contains("SWORD") || name.contains("AXE") || name.contains("HOE") || name.contains("PICKAXE") || name.contains("SHOVEL");
+    /**
+     * Keeps one entry per distinct payload. Textures are grouped by content hash first; models then have their
+     * texture id rewritten to the kept texture and are grouped by content hash and texture id. The first entry in
+     * name order is kept, the others are dropped and their resource ids aliased to it. Texture and model ids are
+     * aliased separately, as a model and its texture usually share an id. Textures named by a Java model are never
+     * dropped, as those models are packed as they are and cannot be pointed at the kept texture.
+     * @param textureModels rewritten to refer to the kept entries
+     */
+    private Deduplication deduplicate(SortedMap<String, PackEntry> entries, Map<String, SourceStamp> stamps,
+                                      Map<String, String> textureModels) {
+        Map<String, String> textureAliases = new HashMap<>();
+        Map<String, String> modelAliases = new HashMap<>();
+        Map<String, String> kept = new HashMap<>();
+        Set<String> referenced = new HashSet<>();
+        stamps.values().forEach(stamp -> referenced.addAll(stamp.textures()));
+        int duplicates = 0;
+        long bytes = 0;
+        for (boolean models : new boolean[]{false, true}) {
+            Map<String, String> aliases = models ? modelAliases : textureAliases;
+            if (models) {
+                entries.replaceAll((name, entry) -> entry.modelTexture() == null || !textureAliases.containsKey(entry.modelTexture())
+                        ? entry : new PackEntry(entry.source(), null, entry.resource(), textureAliases.get(entry.modelTexture())));
+            }
+            Map<String, String> firstByContent = new HashMap<>();
+            Iterator<Map.Entry<String, PackEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, PackEntry> candidate = iterator.next();
+                PackEntry entry = candidate.getValue();
+                if (entry.source() == null || (entry.modelTexture() != null) != models
+                        || (!models && referenced.contains(entry.resource()))) {
+                    continue;
+                }
+                SourceStamp stamp = stamps.get(candidate.getKey());
+                String content = HexFormat.of().formatHex(stamp.hash()) + (models ? "\0" + entry.modelTexture() : "");
+                String first = firstByContent.putIfAbsent(content, candidate.getKey());
+                if (first != null) {
+                    iterator.remove();
+                    aliases.put(entry.resource(), entries.get(first).resource());
+                    kept.put(candidate.getKey(), first);
+                    duplicates++;
+                    bytes += stamp.size();
+                }
+            }
+        }
+        if (!kept.isEmpty()) {
+            Map<String, String> rewritten = new HashMap<>();
+            textureModels.forEach((texture, model) ->
+                    rewritten.putIfAbsent(kept.getOrDefault(texture, texture), kept.getOrDefault(model, model)));
+            textureModels.clear();
+            textureModels.putAll(rewritten);
+            kept.forEach((duplicate, original) -> logger.fine(() -> duplicate + " duplicates " + original + "; packing it once"));
+        }
+        return new Deduplication(modelAliases, duplicates, bytes);
     }
 
-    private void zipPack(Path root, Path destination) throws IOException {
-        Files.createDirectories(destination.getParent());
-        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(destination))) {
-            Files.walk(root)
-                    .filter(path -> !Files.isDirectory(path))
-                    .forEach(path -> writeZipEntry(zip, root, path));
+    /**
+     * Prepares entries on the asset pool, at most {@code ahead} in front of the writer, and writes them in name order
+     * to a temporary file next to the destination, then moves it into place, so a failed build never leaves a
+     * truncated pack behind.
+     */
+    private WriteStats writeZip(SortedMap<String, PackEntry> entries, Map<String, SourceStamp> stamps,
+                                Map<String, String> textureModels, PackManifest previous, Path manifestFile,
+                                Path destination, BuildListener listener, ExecutorService pool, int ahead) throws IOException {
+        Path parent = destination.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        boolean reusable = previous.describes(destination);
+
+        List<String> names = new ArrayList<>(entries.keySet());
+        IntFunction<Future<Prepared>> submit = index -> {
+            String name = names.get(index);
+            PackManifest.Entry old = reusable ? previous.get(name) : null;
+            PackEntry entry = entries.get(name);
+            SourceStamp stamp = stamps.getOrDefault(name, SourceStamp.GENERATED);
+            return pool.submit(() -> {
+                // null already means "skip this entry", so a cancelled build must not return it
+                if (listener.cancelled()) {
+                    throw cancelled();
+                }
+                return prepare(name, entry, stamp, old);
+            });
+        };
+        Deque<Future<Prepared>> prepared = new ArrayDeque<>(ahead);
+        int submitted = 0;
+        while (submitted < Math.min(ahead, names.size())) {
+            prepared.add(submit.apply(submitted++));
+        }
+
+        List<PackManifest.Entry> written = new ArrayList<>(names.size());
+        Map<String, int[]> textureSizes = new HashMap<>();
+        Map<String, float[]> modelTextureSizes = new HashMap<>();
+        Map<String, Long> savings = new TreeMap<>();
+        int reused = 0;
+        Path temp = Files.createTempFile(parent, destination.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel previousZip = reusable ? FileChannel.open(destination, StandardOpenOption.READ) : null;
+                 PackZipWriter zip = new PackZipWriter(temp)) {
+                for (int i = 0; i < names.size(); i++) {
+                    if (listener.cancelled()) {
+                        throw cancelled();
+                    }
+                    String name = names.get(i);
+                    Prepared entry = await(prepared.poll());
+                    if (submitted < names.size()) {
+                        prepared.add(submit.apply(submitted++));
+                    }
+                    if (entry == null) {
+                        continue;
+                    }
+                    PackZipWriter.WrittenEntry result;
+                    if (entry.compressed() == null) {
+                        result = zip.writeRaw(name, readPrevious(previousZip, entry.old(), name));
+                        reused++;
+                    } else {
+                        result = zip.writeRaw(name, entry.compressed());
+                    }
+                    written.add(new PackManifest.Entry(name, entry.hash(), entry.source().hash(), entry.source().size(),
+                            entry.source().modified(), entry.source().textures(), entry.width(), entry.height(),
+                            entry.textureSize(), entry.saved(), result.method(), result.crc(), result.compressedSize(),
+                            result.size(), result.dataOffset()));
+                    if (entry.width() > 0) {
+                        textureSizes.put(name, new int[]{entry.width(), entry.height()});
+                    }
+                    if (entry.textureSize() != null) {
+                        modelTextureSizes.put(name, entry.textureSize());
+                    }
+                    if (entry.saved() > 0) {
+                        savings.put(name, entry.saved());
+                    }
+                    listener.progress(i + 1, names.size(), zip.position());
+                }
+            }
+            if (listener.cancelled()) {
+                throw cancelled();
+            }
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        try {
+            PackManifest.of(destination, written).write(manifestFile);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Unable to write resource pack manifest " + manifestFile, ex);
         }
+        checkTextureSizes(textureModels, textureSizes, modelTextureSizes);
+        return new WriteStats(reused, savings);
     }
 
-    private void writeZipEntry(ZipOutputStream zip, Path root, Path file) {
-        try (InputStream in = new FileInputStream(file.toFile())) {
-            String entryName = root.relativize(file).toString().replace('\\', '/');
-            zip.putNextEntry(new ZipEntry(entryName));
-            in.transferTo(zip);
-            zip.closeEntry();
+    /**
+     * Unless the previous zip already holds the same content, converts, optimises and compresses an entry. Runs on
+     * the asset pool.
+     * @return the prepared entry, or {@code null} if its source could not be read or converted
+     */
+    private Prepared prepare(String name, PackEntry entry, SourceStamp source, PackManifest.Entry old) {
+        // the hash covers what shapes the output besides the source, so converter or optimiser changes are not reused
+        byte[] hash;
+        if (entry.content() != null) {
+            hash = sha256(entry.content(), null);
+        } else if (entry.modelTexture() != null) {
+            hash = sha256(source.hash(), entry.modelTexture() + '@' + GeoModelConverter.CONVERTER_VERSION);
+        } else if (name.endsWith(".png")) {
+            hash = sha256(source.hash(), PngOptimizer.SETTINGS);
+        } else {
+            hash = source.hash();
+        }
+        if (old != null && old.sameContent(hash)) {
+            return new Prepared(old, hash, source, null, old.width(), old.height(), old.textureSize(), old.saved());
+        }
+        try {
+            byte[] bytes = entry.content() != null ? entry.content() : Files.readAllBytes(entry.source());
+            if (entry.modelTexture() != null) {
+                byte[] converted = modelConverter.convert(entry.source(), bytes, entry.modelTexture());
+                return new Prepared(null, hash, source, PackZipWriter.compress(converted, PackZipWriter.DEFLATED), 0, 0,
+                        GeoModelConverter.textureSize(converted), 0L);
+            }
+            if (name.endsWith(".png")) {
+                return preparePng(entry, hash, source, bytes);
+            }
+            return new Prepared(null, hash, source, PackZipWriter.compress(bytes, PackZipWriter.DEFLATED), 0, 0, null, 0L);
         } catch (IOException ex) {
-            logger.log(Level.SEVERE, "Failed to add file to resource pack: " + file, ex);
+            logger.log(Level.SEVERE, "Failed to add file to resource pack: " + entry.source(), ex);
+            return null;
         }
     }
 
-    private void deleteRecursive(Path path) {
+    private Prepared preparePng(PackEntry entry, byte[] hash, SourceStamp source, byte[] bytes) {
+        PngOptimizer.Result optimized;
         try {
-            if (!Files.exists(path)) {
+            optimized = PngOptimizer.optimize(bytes);
+        } catch (IOException ex) {
+            logger.warning("Texture " + entry.source() + " is not a valid PNG (" + ex.getMessage() + "); adding it unchanged.");
+            return new Prepared(null, hash, source, PackZipWriter.compress(bytes, PackZipWriter.STORED), 0, 0, null, 0L);
+        }
+        // PNG data is already deflated; storing it skips a second compression pass that gains nothing
+        return new Prepared(null, hash, source, PackZipWriter.compress(optimized.data(), PackZipWriter.STORED),
+                optimized.width(), optimized.height(), null, optimized.saved());
+    }
+
+    /**
+     * Warns about textures whose size is not a uniform multiple of the texture size their model was made for.
+     */
+    private void checkTextureSizes(Map<String, String> textureModels, Map<String, int[]> textureSizes,
+                                   Map<String, float[]> modelTextureSizes) {
+        textureModels.forEach((texture, model) -> {
+            int[] actual = textureSizes.get(texture);
+            float[] expected = modelTextureSizes.get(model);
+            if (actual == null || expected == null || expected[0] <= 0 || expected[1] <= 0) {
                 return;
             }
-            Files.walk(path)
-                    .sorted(Comparator.reverseOrder())
-                    .forEach(p -> {
-                        try {
-                            Files.deleteIfExists(p);
-                        } catch (IOException ignored) {
-                            // best effort cleanup
-                        }
-                    });
-        } catch (IOException ignored) {
-            // best effort cleanup
+            float scaleX = actual[0] / expected[0];
+            float scaleY = actual[1] / expected[1];
+            if (scaleX != scaleY || scaleX != Math.floor(scaleX) || scaleX < 1f) {
+                logger.warning("Texture " + texture + " is " + actual[0] + "x" + actual[1] + " but " + model
+                        + " expects " + (int) expected[0] + "x" + (int) expected[1] + "; its UVs will be misaligned.");
+            }
+        });
+    }
+
+    /**
+     * Lists the bytes optimisation removed from each texture, largest first, so operators can see where the savings
+     * come from without raising the log level.
+     * @return the report, or {@code null} if nothing was saved or it could not be written
+     */
+    private Path writeSavingsReport(Path report, Map<String, Long> savings) {
+        try {
+            if (savings.isEmpty()) {
+                Files.deleteIfExists(report);
+                return null;
+            }
+            List<String> lines = new ArrayList<>(savings.size() + 1);
+            lines.add("# Bytes removed from each texture by PNG optimisation, largest first");
+            savings.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> lines.add(entry.getValue() + "\t" + entry.getKey()));
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            Files.write(report, lines, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Unable to write texture optimisation report " + report, ex);
+            return null;
+        }
+        long total = savings.values().stream().mapToLong(Long::longValue).sum();
+        logger.info(() -> "Texture optimisation saves " + total / 1024 + " KiB across " + savings.size()
+                + " textures; see " + report + " for each texture.");
+        return report;
+    }
+
+    private static PackZipWriter.Compressed readPrevious(FileChannel previousZip, PackManifest.Entry old, String name)
+            throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(Math.toIntExact(old.compressedSize()));
+        while (compressed.hasRemaining()) {
+            if (previousZip.read(compressed, old.dataOffset() + compressed.position()) < 0) {
+                throw new IOException("Previous resource pack is truncated at " + name);
+            }
+        }
+        return new PackZipWriter.Compressed(old.method(), old.crc(), old.size(), compressed.array());
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while building the resource pack");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof CancellationException cancelled) {
+                throw cancelled;
+            }
+            throw new IOException("Failed to prepare a resource pack entry", ex.getCause());
+        }
+    }
+
+    private static CancellationException cancelled() {
+        return new CancellationException("Resource pack build cancelled");
+    }
+
+    private static ThreadFactory assetThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "NobleItems-PackBuilder-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static byte[] sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes, String salt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (salt != null) {
+                digest.update(salt.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return digest.digest(bytes);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * An entry ready to be appended.
+     * @param old the previous build's record when its bytes are reused, otherwise {@code null}
+     * @param compressed the new payload, or {@code null} to copy {@code old} from the previous zip
+     * @param width texture width, or 0 if the entry is not a readable PNG
+     * @param textureSize texture size declared by a converted model, or {@code null}
+     * @param saved bytes removed by PNG optimisation
+     */
+    private record Prepared(PackManifest.Entry old, byte[] hash, SourceStamp source, PackZipWriter.Compressed compressed,
+                            int width, int height, float[] textureSize, long saved) { }
+
+    private record WriteStats(int reused, Map<String, Long> savings) { }
+
+    /**
+     * @param hash SHA-256 of the file, or empty for generated entries
+     * @param size file size, or {@code -1} for generated entries
+     * @param modified modification time in millis, or {@code -1} for generated entries
+     * @param textures texture ids named by a Java model source, otherwise empty
+     */
+    private record SourceStamp(byte[] hash, long size, long modified, List<String> textures) {
+        static final SourceStamp GENERATED = new SourceStamp(new byte[0], -1L, -1L, List.of());
+    }
+
+    /**
+     * @param modelAliases resource ids of dropped duplicate models mapped to the id of the model that was kept
+     * @param bytes source bytes that were not packed again
+     */
+    private record Deduplication(Map<String, String> modelAliases, int duplicates, long bytes) { }
+
+    /**
+     * One file of the pack: content generated in memory, or a source file read while zipping.
+     * @param source the file the entry comes from, or {@code null} for generated JSON
+     * @param content the entry bytes, or {@code null} to read {@code source}
+     * @param resource the namespaced id models and definitions refer to the entry by, or {@code null} for generated JSON
+     * @param modelTexture for Blockbench models, the texture id passed to the converter; otherwise {@code null}
+     */
+    private record PackEntry(Path source, byte[] content, String resource, String modelTexture) {
+        static PackEntry generated(String json) {
+            return new PackEntry(null, json.getBytes(StandardCharsets.UTF_8), null, null);
         }
     }
 
-    private record OverrideEntry(int customModelData, String model) { }
+    record OverrideEntry(int customModelData, String model) { }
 }
@@ -0,0 +1,142 @@
+package com.github.cybellereaper;
+
+import com.github.cybellereaper.config.DefinitionLoader;
+import com.github.cybellereaper.config.LoadResult;
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.item.CustomItemRegistry;
+import com.github.cybellereaper.mob.CustomMob;
+import com.github.cybellereaper.mob.CustomMobRegistry;
+import com.github.cybellereaper.resourcepack.BuildListener;
+import com.github.cybellereaper.resourcepack.BuildResult;
+import com.github.cybellereaper.resourcepack.ResourcePackBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads, indexes and packs a catalog the size of the largest servers we know of, and fails when a stage exceeds its
+ * time or heap budget. The budgets are several times what the stages take on a laptop, so they only catch regressions
+ * that change how a stage scales, not noise. Tagged {@code scale}, so it only runs with {@code ./gradlew scaleTest}.
+ */
+@Tag("scale")
+class CatalogScaleTest {
+    private static final int ITEMS = 20_000;
+    private static final int MOBS = 3_000;
+    private static final long SEED = 42L;
+
+    private static final Duration LOAD_BUDGET = Duration.ofSeconds(10);
+    private static final Duration LOOKUP_BUDGET = Duration.ofSeconds(2);
+    private static final Duration FULL_BUILD_BUDGET = Duration.ofSeconds(60);
+    private static final Duration INCREMENTAL_BUILD_BUDGET = Duration.ofSeconds(15);
+    private static final long DEFINITIONS_HEAP_BUDGET = 64L << 20;
+    private static final long REGISTRIES_HEAP_BUDGET = 64L << 20;
+    private static final long BUILD_RETAINED_HEAP_BUDGET = 16L << 20;
+
+    @TempDir
+    static Path dataFolder;
+
+    private static Logger logger;
+
+    @BeforeAll
+    static void writeCatalog() throws IOException {
+        SyntheticCatalog.write(dataFolder, ITEMS, MOBS, SEED);
+        logger = Logger.getLogger("scale");
+        logger.setLevel(Level.WARNING);
+    }
+
+    @Test
+    void loadsTheCatalogWithinBudget() throws IOException {
+        DefinitionLoader loader = new DefinitionLoader(logger);
+        long before = usedHeap();
+
+        LoadResult<CustomItem> items = loader.readItems(dataFolder.resolve("items.yml").toFile());
+        LoadResult<CustomMob> mobs = loader.readMobs(dataFolder.resolve("mobs.yml").toFile());
+        long retained = usedHeap() - before;
+
+        assertEquals(ITEMS, items.definitions().size());
+        assertEquals(MOBS, mobs.definitions().size());
+        assertEquals(0, items.warnings() + mobs.warnings());
+        assertWithin(LOAD_BUDGET, items.elapsedNanos() + mobs.elapsedNanos(), "loading");
+        assertHeapWithin(DEFINITIONS_HEAP_BUDGET, retained, "loaded definitions");
+    }
+
+    @Test
+    void indexesAndLooksUpTheCatalogWithinBudget() throws IOException {
+        DefinitionLoader loader = new DefinitionLoader(logger);
+        List<CustomItem> items = loader.loadItems(dataFolder.resolve("items.yml").toFile());
+        List<CustomMob> mobs = loader.loadMobs(dataFolder.resolve("mobs.yml").toFile());
+        CustomItemRegistry itemRegistry = new CustomItemRegistry();
+        CustomMobRegistry mobRegistry = new CustomMobRegistry();
+        long before = usedHeap();
+
+        long start = System.nanoTime();
+        itemRegistry.replaceAll(items);
+        mobRegistry.replaceAll(mobs);
+        for (int i = 0; i < ITEMS; i++) {
+            assertTrue(itemRegistry.get(SyntheticCatalog.itemId(i).toUpperCase()).isPresent());
+        }
+        for (int i = 0; i < MOBS; i++) {
+            assertTrue(mobRegistry.get(SyntheticCatalog.mobId(i)).isPresent());
+        }
+        assertEquals(20, itemRegistry.complete("item_1", 20).size());
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+
+        assertEquals(ITEMS, itemRegistry.size());
+        assertEquals(MOBS, mobRegistry.size());
+        assertWithin(LOOKUP_BUDGET, elapsed, "indexing and lookups");
+        assertHeapWithin(REGISTRIES_HEAP_BUDGET, retained, "registries");
+    }
+
+    @Test
+    void packsTheCatalogWithinBudget() throws IOException {
+        DefinitionLoader loader = new DefinitionLoader(logger);
+        List<CustomItem> items = loader.loadItems(dataFolder.resolve("items.yml").toFile());
+        List<CustomMob> mobs = loader.loadMobs(dataFolder.resolve("mobs.yml").toFile());
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, logger, new CustomItemRegistry(), new CustomMobRegistry());
+        Path destination = dataFolder.resolve("pack.zip");
+        long before = usedHeap();
+
+        BuildResult full = builder.build(destination, items, mobs, BuildListener.NONE);
+        BuildResult incremental = builder.build(destination, items, mobs, BuildListener.NONE);
+        long retained = usedHeap() - before;
+
+        assertTrue(full.duplicates() > 0, "the catalog shares textures, so some should be packed once");
+        assertEquals(incremental.entries(), incremental.reused());
+        assertWithin(FULL_BUILD_BUDGET, full.millis() * 1_000_000L, "full build");
+        assertWithin(INCREMENTAL_BUILD_BUDGET, incremental.millis() * 1_000_000L, "incremental build");
+        assertHeapWithin(BUILD_RETAINED_HEAP_BUDGET, retained, "heap retained after building");
+    }
+
+    private static void assertWithin(Duration budget, long elapsedNanos, String stage) {
+        assertTrue(elapsedNanos <= budget.toNanos(),
+                stage + " took " + Duration.ofNanos(elapsedNanos).toMillis() + " ms, budget is " + budget.toMillis() + " ms");
+    }
+
+    private static void assertHeapWithin(long budget, long bytes, String what) {
+        assertTrue(bytes <= budget, what + " use " + (bytes >> 20) + " MiB of heap, budget is " + (budget >> 20) + " MiB");
+    }
+
+    /**
+     * Heap in use after a full collection. {@link System#gc()} is only a hint, so this is an estimate, which is why
+     * the heap budgets are generous.
+     */
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.cybellereaper;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.model.BlockbenchModel;
+import com.github.cybellereaper.model.ItemStats;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic item and mob catalogs for scale tests and benchmarks: the same size and seed always produce the same
+ * definitions and assets. Every fourth item and every second mob has a Blockbench model, and every mob wields one of
+ * the items. Textures are drawn from {@value #TEXTURE_VARIANTS} patterns, so large catalogs share some of them the way
+ * real ones do.
+ */
+public final class SyntheticCatalog {
+    private static final String[] MATERIALS = {"DIAMOND_SWORD", "IRON_AXE", "BLAZE_ROD", "STICK", "BOW", "NETHERITE_HOE"};
+    private static final String[] ENTITY_TYPES = {"ZOMBIE", "SKELETON", "IRON_GOLEM", "ALLAY", "HUSK"};
+    private static final int TEXTURE_VARIANTS = 1024;
+    private static final int TEXTURE_SIZE = 16;
+
+    private SyntheticCatalog() {
+    }
+
+    public static String itemId(int index) {
+        return "item_" + index;
+    }
+
+    public static String mobId(int index) {
+        return "mob_" + index;
+    }
+
+    public static String itemsYaml(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder yaml = new StringBuilder(count * 256).append("items:\n");
+        for (int i = 0; i < count; i++) {
+            yaml.append("  ").append(itemId(i)).append(":\n")
+                    .append("    display-name: \"&").append(Integer.toHexString(random.nextInt(16))).append("Item ").append(i).append("\"\n")
+                    .append("    material: ").append(MATERIALS[random.nextInt(MATERIALS.length)]).append('\n')
+                    .append("    custom-model-data: ").append(1000 + i).append('\n')
+                    .append("    lore:\n")
+                    .append("      - \"&7Synthetic item ").append(i).append("\"\n")
+                    .append("      - \"&c+").append(random.nextInt(20)).append(" Damage\"\n");
+            if (i % 4 == 0) {
+                yaml.append("    blockbench:\n")
+                        .append("      model: models/item/").append(itemId(i)).append(".geo.json\n")
+                        .append("      texture: textures/item/").append(itemId(i)).append(".png\n")
+                        .append("      scale: 1.0\n");
+            }
+            yaml.append("    stats:\n")
+                    .append("      damage: ").append(random.nextInt(20)).append('\n')
+                    .append("      defense: ").append(random.nextInt(10)).append('\n')
+                    .append("      critical-chance: ").append(random.nextInt(100) / 100.0).append('\n');
+        }
+        return yaml.toString();
+    }
+
+    /**
+     * @param itemCount size of the item catalog the mobs' equipment refers to
+     */
+    public static String mobsYaml(int count, int itemCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder yaml = new StringBuilder(count * 256).append("mobs:\n");
+        for (int i = 0; i < count; i++) {
+            yaml.append("  ").append(mobId(i)).append(":\n")
+                    .append("    display-name: \"&cMob ").append(i).append("\"\n")
+                    .append("    type: ").append(ENTITY_TYPES[random.nextInt(ENTITY_TYPES.length)]).append('\n')
+                    .append("    max-health: ").append(20 + random.nextInt(200)).append('\n')
+                    .append("    attack-damage: ").append(1 + random.nextInt(15)).append('\n');
+            if (i % 2 == 0) {
+                yaml.append("    blockbench:\n")
+                        .append("      model: models/entity/").append(mobId(i)).append(".geo.json\n")
+                        .append("      texture: textures/entity/").append(mobId(i)).append(".png\n")
+                        .append("      scale: 1.0\n");
+            }
+            yaml.append("    equipment:\n")
+                    .append("      hand: ").append(itemId(random.nextInt(Math.max(1, itemCount)))).append('\n');
+        }
+        return yaml.toString();
+    }
+
+    /**
+     * @return the same items {@link #itemsYaml} describes, built directly
+     */
+    public static List<CustomItem> items(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<CustomItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "&" + Integer.toHexString(random.nextInt(16)) + "Item " + i;
+            String material = MATERIALS[random.nextInt(MATERIALS.length)];
+            List<String> lore = List.of("&7Synthetic item " + i, "&c+" + random.nextInt(20) + " Damage");
+            BlockbenchModel model = i % 4 == 0
+                    ? new BlockbenchModel("models/item/" + itemId(i) + ".geo.json", "textures/item/" + itemId(i) + ".png", 1.0)
+                    : BlockbenchModel.NONE;
+            ItemStats stats = new ItemStats(random.nextInt(20), random.nextInt(10), random.nextInt(100) / 100.0);
+            items.add(new CustomItem(itemId(i), name, material, 1000 + i, lore, model, stats));
+        }
+        return items;
+    }
+
+    /**
+     * Writes {@code items.yml}, {@code mobs.yml} and the placeholder models and textures they refer to into
+     * {@code dataFolder}.
+     */
+    public static void write(Path dataFolder, int itemCount, int mobCount, long seed) throws IOException {
+        Files.createDirectories(dataFolder);
+        Files.writeString(dataFolder.resolve("items.yml"), itemsYaml(itemCount, seed));
+        Files.writeString(dataFolder.resolve("mobs.yml"), mobsYaml(mobCount, itemCount, seed + 1));
+        writeAssets(dataFolder, itemCount, mobCount, seed);
+    }
+
+    /**
+     * Writes a Bedrock geometry model and a PNG texture for every item and mob with a Blockbench model.
+     */
+    public static void writeAssets(Path dataFolder, int itemCount, int mobCount, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[][] textures = new byte[TEXTURE_VARIANTS][];
+        Files.createDirectories(dataFolder.resolve("models/item"));
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        Files.createDirectories(dataFolder.resolve("models/entity"));
+        Files.createDirectories(dataFolder.resolve("textures/entity"));
+        for (int i = 0; i < itemCount; i += 4) {
+            Files.writeString(dataFolder.resolve("models/item/" + itemId(i) + ".geo.json"), geoModel(random));
+            Files.write(dataFolder.resolve("textures/item/" + itemId(i) + ".png"), texture(textures, random.nextInt(TEXTURE_VARIANTS)));
+        }
+        for (int i = 0; i < mobCount; i += 2) {
+            Files.writeString(dataFolder.resolve("models/entity/" + mobId(i) + ".geo.json"), geoModel(random));
+            Files.write(dataFolder.resolve("textures/entity/" + mobId(i) + ".png"), texture(textures, random.nextInt(TEXTURE_VARIANTS)));
+        }
+    }
+
+    private static String geoModel(SplittableRandom random) {
+        StringBuilder cubes = new StringBuilder();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                cubes.append(',');
+            }
+            cubes.append("{\"origin\":[").append(random.nextInt(8)).append(",0,").append(random.nextInt(8))
+                    .append("],\"size\":[").append(1 + random.nextInt(8)).append(',').append(1 + random.nextInt(16))
+                    .append(',').append(1 + random.nextInt(8)).append("],\"uv\":[0,0]}");
+        }
+        return "{\"minecraft:geometry\":[{\"description\":{\"texture_width\":" + TEXTURE_SIZE + ",\"texture_height\":"
+                + TEXTURE_SIZE + "},\"bones\":[{\"cubes\":[" + cubes + "]}]}]}";
+    }
+
+    private static byte[] texture(byte[][] textures, int variant) {
+        if (textures[variant] == null) {
+            BufferedImage image = new BufferedImage(TEXTURE_SIZE, TEXTURE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            for (int y = 0; y < TEXTURE_SIZE; y++) {
+                for (int x = 0; x < TEXTURE_SIZE; x++) {
+                    image.setRGB(x, y, 0xFF000000 | (variant * 0x9E3779 + x * 0x1F00 + y * 0x1F) & 0xFFFFFF);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "png", out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            textures[variant] = out.toByteArray();
+        }
+        return textures[variant];
+    }
+}
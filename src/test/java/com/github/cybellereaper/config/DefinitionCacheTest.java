@@ -0,0 +1,51 @@
+package com.github.cybellereaper.config;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.model.BlockbenchModel;
+import com.github.cybellereaper.model.ItemStats;
+import com.github.cybellereaper.mob.CustomMob;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.EquipmentSlot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefinitionCacheTest {
+
+    @Test
+    void roundTripsDefinitionsForMatchingSources(@TempDir Path tempDir) throws Exception {
+        File items = tempDir.resolve("items.yml").toFile();
+        File mobs = tempDir.resolve("mobs.yml").toFile();
+        Files.writeString(items.toPath(), "items: {}");
+        Files.writeString(mobs.toPath(), "mobs: {}");
+
+        CustomItem item = new CustomItem("blade", "&cBlade", "DIAMOND_SWORD", 10, List.of("Line"),
+                new BlockbenchModel("models/item/blade.geo.json", "textures/item/blade.png", 1.5),
+                new ItemStats(5, 1, 0.25));
+        CustomMob mob = new CustomMob("warrior", "Warrior", EntityType.ZOMBIE, 30, 7, BlockbenchModel.NONE,
+                Map.of(EquipmentSlot.HAND, "blade"));
+
+        DefinitionCache cache = new DefinitionCache(tempDir.resolve("cache/definitions.bin"), Logger.getLogger("test"));
+        byte[] fingerprint = cache.fingerprint(List.of(items), List.of(mobs));
+        cache.write(fingerprint, List.of(item), List.of(mob));
+
+        Optional<DefinitionCache.Snapshot> snapshot = cache.read(fingerprint);
+        assertTrue(snapshot.isPresent());
+        assertEquals(List.of(item), snapshot.get().items());
+        assertEquals(List.of(mob), snapshot.get().mobs());
+
+        Files.writeString(items.toPath(), "items:\n  other: {}");
+        assertFalse(cache.read(cache.fingerprint(List.of(items), List.of(mobs))).isPresent());
+    }
+}
@@ -59,6 +59,34 @@ mobs:
         assertEquals("blade", mobs.getFirst().equipment().get(org.bukkit.inventory.EquipmentSlot.HAND));
     }
 
+    @Test
+    void loadsShardDirectoriesAndSkipsDuplicateIds() throws Exception {
+        File tempDir = Files.createTempDirectory("nobleitems-shards").toFile();
+        File itemsDir = new File(tempDir, "items");
+        File weaponsDir = new File(itemsDir, "weapons");
+        assertTrue(weaponsDir.mkdirs());
+
+        write(new File(itemsDir, "armor.yml"), """
+items:
+  helm:
+    material: IRON_HELMET
+""");
+        write(new File(weaponsDir, "blades.yml"), """
+items:
+  blade:
+    material: DIAMOND_SWORD
+  Helm:
+    material: GOLDEN_HELMET
+""");
+        write(new File(itemsDir, "notes.txt"), "not a shard");
+
+        LoadResult<CustomItem> result = loader.readItems(itemsDir);
+
+        assertEquals(List.of("helm", "blade"), result.definitions().stream().map(CustomItem::id).toList());
+        assertEquals("IRON_HELMET", result.definitions().getFirst().material());
+        assertEquals(1, result.warnings());
+    }
+
     private void write(File file, String content) throws Exception {
         try (FileWriter writer = new FileWriter(file)) {
             writer.write(content);
@@ -0,0 +1,110 @@
+package com.github.cybellereaper.config;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefinitionReloaderTest {
+
+    @Test
+    void aReloadThatCannotStartFailsWithoutBlockingLaterOnes(@TempDir Path dataFolder) throws Exception {
+        DefinitionReloader reloader = new DefinitionReloader(plugin(dataFolder), new DefinitionLoader(Logger.getLogger("test")),
+                (items, mobs) -> { });
+        reloader.shutdown();
+
+        CompletableFuture<ReloadResult> first = reloader.reloadAsync();
+        CompletableFuture<ReloadResult> second = reloader.reloadAsync();
+
+        ReloadResult result = first.get(10, TimeUnit.SECONDS);
+        assertFalse(result.successful());
+        assertTrue(result.failure() instanceof RejectedExecutionException);
+        assertNotSame(first, second);
+        assertFalse(second.get(10, TimeUnit.SECONDS).successful());
+    }
+
+    @Test
+    void reportsPublisherFailuresAsFailedReloads(@TempDir Path dataFolder) throws Exception {
+        Files.writeString(dataFolder.resolve("items.yml"), "items: {}\n");
+        Files.writeString(dataFolder.resolve("mobs.yml"), "mobs: {}\n");
+        DefinitionReloader reloader = new DefinitionReloader(plugin(dataFolder), new DefinitionLoader(Logger.getLogger("test")),
+                (items, mobs) -> {
+                    throw new IllegalStateException("registry rejected the snapshot");
+                });
+        try {
+            ReloadResult now = reloader.reloadNow();
+            ReloadResult async = reloader.reloadAsync().get(10, TimeUnit.SECONDS);
+
+            assertFalse(now.successful());
+            assertEquals("registry rejected the snapshot", now.failureMessage());
+            assertFalse(async.successful());
+            assertEquals("registry rejected the snapshot", async.failureMessage());
+        } finally {
+            reloader.shutdown();
+        }
+    }
+
+    @Test
+    void loadsShardOnlyLayoutsWithoutRootFiles(@TempDir Path dataFolder) throws Exception {
+        Files.createDirectories(dataFolder.resolve("items"));
+        Files.createDirectories(dataFolder.resolve("mobs"));
+        Files.writeString(dataFolder.resolve("items/blades.yml"), "items:\n  blade:\n    material: STICK\n");
+        Files.writeString(dataFolder.resolve("mobs/empty.yml"), "mobs: {}\n");
+        DefinitionReloader reloader = new DefinitionReloader(plugin(dataFolder), new DefinitionLoader(Logger.getLogger("test")),
+                (items, mobs) -> { });
+        try {
+            ReloadResult result = reloader.reloadNow();
+
+            assertTrue(result.successful(), result::failureMessage);
+            assertEquals(1, result.items());
+        } finally {
+            reloader.shutdown();
+        }
+    }
+
+    @Test
+    void describesFailuresWithoutAMessageByTheirType() {
+        ReloadResult failed = new ReloadResult(0, 0, 0, 0, 0, 0, 1, new NullPointerException());
+
+        assertEquals("NullPointerException", failed.failureMessage());
+        assertNull(new ReloadResult(1, 0, 0, 0, 0, 0, 0, null).failureMessage());
+    }
+
+    /**
+     * A plugin whose scheduler runs tasks immediately on the calling thread.
+     */
+    private static Plugin plugin(Path dataFolder) {
+        Logger logger = Logger.getLogger("test");
+        BukkitScheduler scheduler = (BukkitScheduler) Proxy.newProxyInstance(BukkitScheduler.class.getClassLoader(),
+                new Class<?>[]{BukkitScheduler.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("runTask") && args[1] instanceof Runnable task) {
+                        task.run();
+                    }
+                    return null;
+                });
+        Server server = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[]{Server.class},
+                (proxy, method, args) -> method.getName().equals("getScheduler") ? scheduler : null);
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getDataFolder" -> dataFolder.toFile();
+                    case "getLogger" -> logger;
+                    case "getServer" -> server;
+                    default -> null;
+                });
+    }
+}
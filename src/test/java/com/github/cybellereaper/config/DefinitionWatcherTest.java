@@ -0,0 +1,134 @@
+package com.github.cybellereaper.config;
+
+import com.github.cybellereaper.item.CustomItem;
+import com.github.cybellereaper.registry.DefinitionDelta;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefinitionWatcherTest {
+    private final BlockingQueue<DefinitionDelta<CustomItem>> published = new LinkedBlockingQueue<>();
+    private DefinitionWatcher watcher;
+
+    @AfterEach
+    void closeWatcher() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    void publishesAddedChangedAndRemovedShardDefinitions(@TempDir Path dataFolder) throws Exception {
+        write(dataFolder, "items.yml", "helm");
+        Files.createDirectories(dataFolder.resolve("items"));
+        startWatching(dataFolder);
+
+        write(dataFolder, "items/blades.yml", "blade");
+        DefinitionDelta<CustomItem> added = next();
+        assertEquals(List.of("blade"), added.upserts().stream().map(CustomItem::id).toList());
+        assertTrue(added.removals().isEmpty());
+
+        write(dataFolder, "items/blades.yml", "blade", "dagger");
+        DefinitionDelta<CustomItem> changed = next();
+        assertEquals(List.of("dagger"), changed.upserts().stream().map(CustomItem::id).toList());
+
+        Files.delete(dataFolder.resolve("items/blades.yml"));
+        DefinitionDelta<CustomItem> removed = next();
+        assertTrue(removed.upserts().isEmpty());
+        assertEquals(Set.of("blade", "dagger"), removed.removals());
+    }
+
+    @Test
+    void dropsTheDefinitionsOfAShardDirectoryMovedAway(@TempDir Path dataFolder) throws Exception {
+        write(dataFolder, "items.yml", "helm");
+        Files.createDirectories(dataFolder.resolve("items/weapons"));
+        write(dataFolder, "items/weapons/blades.yml", "blade");
+        write(dataFolder, "items/weapons/bows.yml", "bow");
+        startWatching(dataFolder);
+
+        Files.move(dataFolder.resolve("items/weapons"), dataFolder.resolve("archived"));
+
+        DefinitionDelta<CustomItem> removed = next();
+        assertTrue(removed.upserts().isEmpty());
+        assertEquals(Set.of("blade", "bow"), removed.removals());
+    }
+
+    private void startWatching(Path dataFolder) throws Exception {
+        DefinitionLoader loader = new DefinitionLoader(Logger.getLogger("test"));
+        watcher = new DefinitionWatcher(plugin(dataFolder), loader, (items, mobs) -> {
+            if (!items.isEmpty()) {
+                published.add(items);
+            }
+        }, 50L);
+        watcher.start();
+        watcher.awaitIndexed();
+    }
+
+    private DefinitionDelta<CustomItem> next() throws InterruptedException {
+        DefinitionDelta<CustomItem> delta = published.poll(10, TimeUnit.SECONDS);
+        assertNotNull(delta, "no hot reload was published");
+        return delta;
+    }
+
+    /**
+     * Writes an items file with one stick per id, atomically so the watcher never parses it half written.
+     */
+    private static void write(Path dataFolder, String file, String... ids) throws IOException {
+        StringBuilder yaml = new StringBuilder("items:\n");
+        for (String id : ids) {
+            yaml.append("  ").append(id).append(":\n    material: STICK\n");
+        }
+        Path staged = Files.writeString(dataFolder.resolve("staged.tmp"), yaml);
+        Files.move(staged, dataFolder.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * A plugin whose scheduler runs tasks immediately on the calling thread.
+     */
+    private static Plugin plugin(Path dataFolder) {
+        Logger logger = Logger.getLogger("test");
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if (method.getName().equals("runTask") && args[1] instanceof Runnable task) {
+                task.run();
+            }
+            return null;
+        });
+        Server server = proxy(Server.class, (method, args) -> method.getName().equals("getScheduler") ? scheduler : null);
+        return proxy(Plugin.class, (method, args) -> switch (method.getName()) {
+            case "getDataFolder" -> dataFolder.toFile();
+            case "getLogger" -> logger;
+            case "getServer" -> server;
+            default -> null;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                method.getDeclaringClass() == Object.class ? method.invoke(handler, args) : handler.handle(method, args)));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Exception;
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.cybellereaper.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PendingDeliveryStoreTest {
+
+    @Test
+    void readsBackItemIdsContainingDots(@TempDir Path dataFolder) {
+        Path file = dataFolder.resolve("deliveries.yml");
+        UUID player = UUID.randomUUID();
+        PendingDeliveryStore store = new PendingDeliveryStore(file, Logger.getLogger("test"));
+        store.add(player, "blades.iron", 3);
+        store.add(player, "helm", 1);
+        store.add(player, "blades.iron", 2);
+        store.close();
+
+        PendingDeliveryStore reopened = new PendingDeliveryStore(file, Logger.getLogger("test"));
+        reopened.load();
+
+        assertEquals(Map.of("blades.iron", 5, "helm", 1), reopened.take(player));
+        reopened.close();
+    }
+}
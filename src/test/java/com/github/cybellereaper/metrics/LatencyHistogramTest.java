@@ -0,0 +1,52 @@
+package com.github.cybellereaper.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void estimatesQuantilesWithinAPowerOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000L);
+        }
+        histogram.record(5_000_000L);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(99 * 1_000L + 5_000_000L, snapshot.sum());
+        assertEquals(5_000_000L, snapshot.max());
+        assertEquals(1_024L, snapshot.quantile(0.5));
+        assertEquals(1_024L, snapshot.quantile(0.99));
+        assertEquals(5_000_000L, snapshot.quantile(1.0));
+        assertEquals(0L, new LatencyHistogram().snapshot().quantile(0.5));
+    }
+
+    @Test
+    void formatsTimersAsCumulativePrometheusHistograms() {
+        Timer timer = new Timer("test", "Test operation");
+        timer.record(System.nanoTime(), true);
+        timer.record(System.nanoTime(), false);
+
+        String text = PrometheusExporter.format(List.of(timer));
+
+        assertTrue(text.contains("# TYPE nobleitems_test_seconds histogram\n"));
+        assertTrue(text.contains("nobleitems_test_seconds_bucket{le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("nobleitems_test_seconds_count 2\n"));
+        assertTrue(text.contains("nobleitems_test_failures_total 1\n"));
+        long previous = 0;
+        for (String line : text.split("\n")) {
+            if (line.startsWith("nobleitems_test_seconds_bucket")) {
+                long value = Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+                assertTrue(value >= previous, line);
+                previous = value;
+            }
+        }
+    }
+}
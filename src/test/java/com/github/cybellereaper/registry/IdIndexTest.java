@@ -0,0 +1,86 @@
+package com.github.cybellereaper.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdIndexTest {
+
+    @Test
+    void looksUpIdsIgnoringCase() {
+        IdIndex<String> index = IdIndex.of(List.of("Ruby_Sword", "healer_staff"), Function.identity());
+
+        assertEquals("Ruby_Sword", index.get("ruby_sword"));
+        assertEquals("Ruby_Sword", index.get("RUBY_SWORD"));
+        assertEquals("healer_staff", index.get("Healer_Staff"));
+        assertNull(index.get("ruby"));
+        assertEquals(List.of("Ruby_Sword", "healer_staff"), index.values());
+    }
+
+    @Test
+    void laterDuplicatesReplaceEarlierOnes() {
+        IdIndex<String> index = IdIndex.of(List.of("blade", "BLADE"), Function.identity());
+
+        assertEquals(1, index.size());
+        assertEquals("BLADE", index.get("blade"));
+    }
+
+    @Test
+    void completesPrefixesAndSuggestsCloseIds() {
+        IdIndex<String> index = IdIndex.of(List.of("Ruby_Sword", "ruby_golem", "healer_staff"), Function.identity());
+
+        assertEquals(List.of("ruby_golem", "Ruby_Sword"), index.complete("RU", 10));
+        assertEquals(List.of("ruby_golem"), index.complete("ruby", 1));
+        assertTrue(index.complete("x", 10).isEmpty());
+        assertEquals("Ruby_Sword", index.closest("rubysword"));
+        assertNull(index.closest("zzz"));
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        IdIndex<String> index = IdIndex.empty();
+
+        assertNull(index.get("anything"));
+        assertTrue(index.values().isEmpty());
+    }
+
+    @Test
+    void appliesDeltasWithoutTouchingTheOriginalSnapshot() {
+        Function<String[], String> id = definition -> definition[0];
+        String[] sword = {"Ruby_Sword", "v1"};
+        String[] staff = {"healer_staff", "v1"};
+        String[] golem = {"ruby_golem", "v1"};
+        IdIndex<String[]> original = IdIndex.of(List.of(sword, staff, golem), id);
+
+        String[] newSword = {"ruby_sword", "v2"};
+        String[] helm = {"iron_helm", "v1"};
+        IdIndex<String[]> updated = original.with(new DefinitionDelta<>(List.of(newSword, helm), Set.of("HEALER_STAFF")), id);
+
+        assertEquals(List.of(newSword, golem, helm), updated.values());
+        assertEquals(newSword, updated.get("RUBY_SWORD"));
+        assertEquals(helm, updated.get("iron_helm"));
+        assertNull(updated.get("healer_staff"));
+        assertEquals(List.of("iron_helm"), updated.complete("iron", 10));
+        assertTrue(updated.complete("heal", 10).isEmpty());
+
+        assertEquals(List.of(sword, staff, golem), original.values());
+        assertEquals(staff, original.get("healer_staff"));
+        assertNull(original.get("iron_helm"));
+    }
+
+    @Test
+    void removingEveryIdLeavesAnEmptyIndex() {
+        IdIndex<String> index = IdIndex.of(List.of("blade"), Function.identity())
+                .with(new DefinitionDelta<>(List.of(), Set.of("Blade")), Function.identity());
+
+        assertEquals(0, index.size());
+        assertNull(index.get("blade"));
+        assertTrue(index.complete("b", 10).isEmpty());
+    }
+}
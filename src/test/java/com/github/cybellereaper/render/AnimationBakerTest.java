@@ -0,0 +1,53 @@
+package com.github.cybellereaper.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnimationBakerTest {
+
+    @Test
+    void bakesKeyframesAtTickResolution() throws IOException {
+        String json = """
+                {"format_version":"1.8.0","animations":{
+                  "animation.golem.walk":{"loop":true,"animation_length":1.0,"bones":{
+                    "root":{"rotation":{"0.0":[0,0,0],"0.5":[90,0,0],"1.0":[0,0,0]},"position":[0,"2",0]}}},
+                  "animation.golem.attack":{"bones":{"arm":{"scale":{"0.25":{"post":2}}}}}}}
+                """;
+
+        Map<String, BakedAnimation> animations = AnimationBaker.bake(new StringReader(json));
+
+        BakedAnimation walk = animations.get("animation.golem.walk");
+        assertTrue(walk.loop());
+        assertEquals(20, walk.frames());
+        assertEquals(0, walk.rootBone());
+        assertEquals(45f, walk.value(5, 0, BakedAnimation.ROTATION), 1e-4);
+        assertEquals(90f, walk.value(10, 0, BakedAnimation.ROTATION), 1e-4);
+        assertEquals(2f, walk.value(7, 0, BakedAnimation.POSITION + 1), 1e-4);
+        assertEquals(1f, walk.value(7, 0, BakedAnimation.SCALE), 1e-4);
+        assertEquals(3, walk.frameAt(23));
+
+        BakedAnimation attack = animations.get("animation.golem.attack");
+        assertFalse(attack.loop());
+        assertEquals(5, attack.frames());
+        assertEquals(2f, attack.value(0, 0, BakedAnimation.SCALE + 2), 1e-4);
+        assertEquals(4, attack.frameAt(100));
+    }
+
+    @Test
+    void rejectsMalformedFiles() {
+        assertThrows(IOException.class, () -> AnimationBaker.bake(new StringReader("[1, 2")));
+    }
+
+    @Test
+    void derivesAnimationPathFromModelPath() {
+        assertEquals("models/entity/golem.animation.json", ModelRenderer.animationPath("models/entity/golem.geo.json"));
+    }
+}
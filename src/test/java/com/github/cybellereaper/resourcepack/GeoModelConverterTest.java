@@ -0,0 +1,83 @@
+package com.github.cybellereaper.resourcepack;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoModelConverterTest {
+    private static final String GEO = """
+            {"format_version":"1.12.0","minecraft:geometry":[{
+              "description":{"identifier":"geometry.cube","texture_width":32,"texture_height":32},
+              "bones":[{"name":"root","pivot":[0,0,0],"cubes":[{"origin":[-4,0,-4],"size":[8,8,8],"uv":[0,0]}]}]}]}
+            """;
+
+    private static final Path CUBE = Path.of("cube.geo.json");
+
+    @Test
+    void convertsCubesToJavaElements(@TempDir Path tempDir) throws IOException {
+        GeoModelConverter converter = new GeoModelConverter(tempDir, Logger.getLogger("test"));
+
+        byte[] converted = converter.convert(CUBE, GEO.getBytes(StandardCharsets.UTF_8), "nobleitems:entity/cube");
+
+        JsonObject model = JsonParser.parseString(new String(converted, StandardCharsets.UTF_8)).getAsJsonObject();
+        assertEquals("nobleitems:entity/cube", model.getAsJsonObject("textures").get("0").getAsString());
+        JsonArray elements = model.getAsJsonArray("elements");
+        assertEquals(1, elements.size());
+        JsonObject cube = elements.get(0).getAsJsonObject();
+        assertEquals("[4.0,0.0,4.0]", cube.get("from").toString());
+        assertEquals("[12.0,8.0,12.0]", cube.get("to").toString());
+        assertEquals("[4.0,4.0,8.0,8.0]", cube.getAsJsonObject("faces").getAsJsonObject("north").get("uv").toString());
+    }
+
+    @Test
+    void reusesCachedConversions(@TempDir Path tempDir) throws IOException {
+        GeoModelConverter converter = new GeoModelConverter(tempDir, Logger.getLogger("test"));
+        byte[] source = GEO.getBytes(StandardCharsets.UTF_8);
+
+        byte[] first = converter.convert(CUBE, source, "nobleitems:entity/cube");
+        byte[] second = converter.convert(CUBE, source, "nobleitems:entity/cube");
+
+        assertArrayEquals(first, second);
+        assertEquals(1, converter.conversions());
+        assertEquals(1, converter.cacheHits());
+    }
+
+    @Test
+    void passesJavaModelsThrough(@TempDir Path tempDir) throws IOException {
+        GeoModelConverter converter = new GeoModelConverter(tempDir, Logger.getLogger("test"));
+        byte[] javaModel = "{\"parent\":\"item/generated\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(javaModel, converter.convert(Path.of("test.json"), javaModel, "nobleitems:item/test"));
+    }
+
+    @Test
+    void rejectsGeometryWithoutATextureSize(@TempDir Path tempDir) {
+        GeoModelConverter converter = new GeoModelConverter(tempDir, Logger.getLogger("test"));
+        byte[] source = GEO.replace("\"texture_width\":32", "\"texture_width\":0").getBytes(StandardCharsets.UTF_8);
+
+        IOException error = assertThrows(IOException.class, () -> converter.convert(CUBE, source, "nobleitems:entity/cube"));
+        assertTrue(error.getMessage().contains("cube.geo.json"), error.getMessage());
+    }
+
+    @Test
+    void listsTheTexturesOfJavaModelsOnly() {
+        byte[] javaModel = "{\"textures\":{\"0\":\"nobleitems:item/blade\",\"particle\":\"#0\"},\"elements\":[]}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(List.of("nobleitems:item/blade", "#0"), GeoModelConverter.javaModelTextures(javaModel));
+        assertEquals(List.of(), GeoModelConverter.javaModelTextures(GEO.getBytes(StandardCharsets.UTF_8)));
+    }
+}
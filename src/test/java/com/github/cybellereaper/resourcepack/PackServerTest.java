@@ -0,0 +1,59 @@
+package com.github.cybellereaper.resourcepack;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PackServerTest {
+    private final PackServer server = new PackServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Logger.getLogger("test"));
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void servesThePublishedPackWithItsHashAsETag(@TempDir Path tempDir) throws IOException, InterruptedException, NoSuchAlgorithmException {
+        byte[] content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        Path pack = tempDir.resolve("pack.zip");
+        Files.write(pack, content);
+        server.start();
+        URI uri = URI.create("http://127.0.0.1:" + server.port() + "/pack.zip");
+
+        assertEquals(404, client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        byte[] sha1 = server.publish(pack);
+        assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(content), sha1);
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+        String etag = '"' + HexFormat.of().formatHex(sha1) + '"';
+        assertEquals(200, response.statusCode());
+        assertEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+        assertArrayEquals(content, response.body());
+
+        HttpResponse<Void> cached = client.send(HttpRequest.newBuilder(uri).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(304, cached.statusCode());
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.cybellereaper.resourcepack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackZipWriterTest {
+
+    @Test
+    void refusesMoreEntriesThanTheCentralDirectoryCanCount(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("pack.zip");
+        PackZipWriter.Compressed empty = PackZipWriter.compress("{}".getBytes(StandardCharsets.UTF_8), PackZipWriter.STORED);
+
+        try (PackZipWriter zip = new PackZipWriter(file)) {
+            for (int i = 0; i < PackZipWriter.MAX_ENTRIES; i++) {
+                zip.writeRaw("entry" + i + ".json", empty);
+            }
+            assertThrows(IOException.class, () -> zip.writeRaw("one-too-many.json", empty));
+        }
+
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            assertEquals(PackZipWriter.MAX_ENTRIES, zip.size());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.cybellereaper.resourcepack;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PngOptimizerTest {
+
+    @Test
+    void recompressesWithoutChangingPixels() throws IOException {
+        BufferedImage image = new BufferedImage(48, 32, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 5) << 24 | (x * 5) << 16 | (y * 7) << 8 | 0x40);
+            }
+        }
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", original);
+
+        PngOptimizer.Result result = PngOptimizer.optimize(original.toByteArray());
+
+        assertEquals(48, result.width());
+        assertEquals(32, result.height());
+        assertTrue(result.data().length <= original.size());
+        assertEquals(original.size() - result.data().length, result.saved());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result.data()));
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(image.getRGB(x, y), decoded.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotPngs() {
+        assertThrows(IOException.class, () -> PngOptimizer.optimize("texture".getBytes(StandardCharsets.UTF_8)));
+    }
+}
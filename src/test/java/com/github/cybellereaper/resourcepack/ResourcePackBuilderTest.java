@@ -8,15 +8,28 @@ import com.github.cybellereaper.mob.CustomMobRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ResourcePackBuilderTest {
@@ -50,7 +63,9 @@ class ResourcePackBuilderTest {
         builder.build(destination);
 
         try (ZipFile zip = new ZipFile(destination.toFile())) {
-            assertNotNull(zip.getEntry("pack.mcmeta"));
+            String mcmeta = new String(zip.getInputStream(zip.getEntry("pack.mcmeta")).readAllBytes());
+            assertTrue(mcmeta.contains("\"min_format\":46"), mcmeta);
+            assertTrue(mcmeta.contains("\"max_format\":69"), mcmeta);
             assertNotNull(zip.getEntry("assets/nobleitems/models/item/test.geo.json"));
             assertNotNull(zip.getEntry("assets/nobleitems/textures/item/test.png"));
 
@@ -61,5 +76,236 @@ class ResourcePackBuilderTest {
             assertTrue(overrideContent.contains("nobleitems:item/test.geo"));
         }
     }
-}
 
+    @Test
+    void reusesUnchangedEntriesFromThePreviousBuild(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("models/item"));
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        Files.writeString(dataFolder.resolve("models/item/test.geo.json"), "{\"dummy\":true}");
+        Path textureFile = dataFolder.resolve("textures/item/test.png");
+        Files.writeString(textureFile, "texture");
+
+        CustomItemRegistry itemRegistry = new CustomItemRegistry();
+        itemRegistry.replaceAll(List.of(new CustomItem("test_item", "Test Item", "DIAMOND_SWORD", 1234, List.of(),
+                new BlockbenchModel("models/item/test.geo.json", "textures/item/test.png", 1.0), ItemStats.EMPTY)));
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, Logger.getLogger("test"), itemRegistry, new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+
+        BuildResult first = builder.build(destination);
+        byte[] firstBytes = Files.readAllBytes(destination);
+        BuildResult second = builder.build(destination);
+
+        assertEquals(0, first.reused());
+        assertEquals(first.entries(), second.reused());
+        assertArrayEquals(firstBytes, Files.readAllBytes(destination));
+
+        Files.writeString(textureFile, "changed texture");
+        BuildResult third = builder.build(destination);
+
+        assertEquals(first.entries() - 1, third.reused());
+        try (ZipFile zip = new ZipFile(destination.toFile())) {
+            ZipEntry texture = zip.getEntry("assets/nobleitems/textures/item/test.png");
+            assertEquals("changed texture", new String(zip.getInputStream(texture).readAllBytes()));
+        }
+    }
+
+    @Test
+    void cancelledBuildLeavesThePreviousPackInPlace(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        List<CustomItem> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(dataFolder.resolve("textures/item/test" + i + ".png"), "texture " + i);
+            items.add(new CustomItem("test_item_" + i, "Test Item", "STICK", i + 1, List.of(),
+                    new BlockbenchModel("", "textures/item/test" + i + ".png", 1.0), ItemStats.EMPTY));
+        }
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, Logger.getLogger("test"), new CustomItemRegistry(), new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+        builder.build(destination, items, List.of(), BuildListener.NONE);
+        byte[] previous = Files.readAllBytes(destination);
+
+        Files.writeString(dataFolder.resolve("textures/item/test0.png"), "changed texture");
+        AtomicInteger written = new AtomicInteger();
+        assertThrows(CancellationException.class, () -> builder.build(destination, items, List.of(), new BuildListener() {
+            @Override
+            public void progress(int count, int total, long bytes) {
+                written.set(count);
+            }
+
+            @Override
+            public boolean cancelled() {
+                return written.get() >= 5;
+            }
+        }));
+
+        assertEquals(5, written.get());
+        assertArrayEquals(previous, Files.readAllBytes(destination));
+    }
+
+    @Test
+    void buildCancelledAfterTheLastEntryLeavesThePreviousPackInPlace(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        Files.writeString(dataFolder.resolve("textures/item/test.png"), "texture");
+        List<CustomItem> items = List.of(new CustomItem("test_item", "Test Item", "STICK", 1, List.of(),
+                new BlockbenchModel("", "textures/item/test.png", 1.0), ItemStats.EMPTY));
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, Logger.getLogger("test"), new CustomItemRegistry(), new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+        builder.build(destination, items, List.of(), BuildListener.NONE);
+        byte[] previous = Files.readAllBytes(destination);
+
+        Files.writeString(dataFolder.resolve("textures/item/test.png"), "changed texture");
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger total = new AtomicInteger(-1);
+        assertThrows(CancellationException.class, () -> builder.build(destination, items, List.of(), new BuildListener() {
+            @Override
+            public void progress(int count, int all, long bytes) {
+                written.set(count);
+                total.set(all);
+            }
+
+            @Override
+            public boolean cancelled() {
+                return written.get() == total.get();
+            }
+        }));
+
+        assertArrayEquals(previous, Files.readAllBytes(destination));
+    }
+
+    @Test
+    void packsDuplicateAssetsOnceAndRewritesReferences(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("models/item"));
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        for (String name : List.of("first", "second")) {
+            Files.writeString(dataFolder.resolve("models/item/" + name + ".geo.json"), "{\"dummy\":true}");
+            Files.writeString(dataFolder.resolve("textures/item/" + name + ".png"), "texture");
+        }
+
+        CustomItemRegistry itemRegistry = new CustomItemRegistry();
+        itemRegistry.replaceAll(List.of(
+                new CustomItem("first", "First", "STICK", 1, List.of(),
+                        new BlockbenchModel("models/item/first.geo.json", "textures/item/first.png", 1.0), ItemStats.EMPTY),
+                new CustomItem("second", "Second", "STICK", 2, List.of(),
+                        new BlockbenchModel("models/item/second.geo.json", "textures/item/second.png", 1.0), ItemStats.EMPTY)));
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, Logger.getLogger("test"), itemRegistry, new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+
+        BuildResult result = builder.build(destination);
+
+        assertEquals(2, result.duplicates());
+        assertEquals(Files.size(dataFolder.resolve("textures/item/second.png"))
+                + Files.size(dataFolder.resolve("models/item/second.geo.json")), result.duplicateBytes());
+        try (ZipFile zip = new ZipFile(destination.toFile())) {
+            assertNotNull(zip.getEntry("assets/nobleitems/textures/item/first.png"));
+            assertNull(zip.getEntry("assets/nobleitems/textures/item/second.png"));
+            assertNull(zip.getEntry("assets/nobleitems/models/item/second.geo.json"));
+            String overrides = new String(zip.getInputStream(zip.getEntry("assets/minecraft/models/item/stick.json")).readAllBytes());
+            assertFalse(overrides.contains("nobleitems:item/second.geo"));
+        }
+    }
+
+    @Test
+    void duplicateTexturesDoNotRedirectModelsThatShareTheirId(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("models/item"));
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        List<CustomItem> items = new ArrayList<>();
+        for (String name : List.of("axe", "sword")) {
+            Files.writeString(dataFolder.resolve("models/item/" + name + ".json"), "{\"elements\":[],\"name\":\"" + name + "\"}");
+            Files.writeString(dataFolder.resolve("textures/item/" + name + ".png"), "texture");
+            items.add(new CustomItem(name, name, "STICK", items.size() + 1, List.of(),
+                    new BlockbenchModel("models/item/" + name + ".json", "textures/item/" + name + ".png", 1.0), ItemStats.EMPTY));
+        }
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, Logger.getLogger("test"), new CustomItemRegistry(), new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+
+        builder.build(destination, items, List.of(), BuildListener.NONE);
+
+        try (ZipFile zip = new ZipFile(destination.toFile())) {
+            assertNotNull(zip.getEntry("assets/nobleitems/models/item/sword.json"));
+            String overrides = new String(zip.getInputStream(zip.getEntry("assets/minecraft/models/item/stick.json")).readAllBytes());
+            assertTrue(overrides.contains("\"model\":\"nobleitems:item/sword\""));
+        }
+    }
+
+    @Test
+    void keepsDuplicateTexturesThatJavaModelsNameDirectly(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("models/item"));
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        Files.writeString(dataFolder.resolve("models/item/axe.geo.json"), "{\"dummy\":true}");
+        Files.writeString(dataFolder.resolve("models/item/sword.json"),
+                "{\"parent\":\"item/handheld\",\"textures\":{\"layer0\":\"nobleitems:item/sword\"}}");
+        Files.writeString(dataFolder.resolve("textures/item/axe.png"), "texture");
+        Files.writeString(dataFolder.resolve("textures/item/sword.png"), "texture");
+        List<CustomItem> items = List.of(
+                new CustomItem("axe", "Axe", "STICK", 1, List.of(),
+                        new BlockbenchModel("models/item/axe.geo.json", "textures/item/axe.png", 1.0), ItemStats.EMPTY),
+                new CustomItem("sword", "Sword", "STICK", 2, List.of(),
+                        new BlockbenchModel("models/item/sword.json", "textures/item/sword.png", 1.0), ItemStats.EMPTY));
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, Logger.getLogger("test"), new CustomItemRegistry(), new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+
+        BuildResult first = builder.build(destination, items, List.of(), BuildListener.NONE);
+        BuildResult second = builder.build(destination, items, List.of(), BuildListener.NONE);
+
+        assertEquals(0, first.duplicates());
+        assertEquals(0, second.duplicates());
+        assertEquals(second.entries(), second.reused());
+        try (ZipFile zip = new ZipFile(destination.toFile())) {
+            assertNotNull(zip.getEntry("assets/nobleitems/textures/item/sword.png"));
+            String model = new String(zip.getInputStream(zip.getEntry("assets/nobleitems/models/item/sword.json")).readAllBytes());
+            assertTrue(model.contains("nobleitems:item/sword"));
+        }
+    }
+
+    @Test
+    void checksAndReportsTexturesReusedFromThePreviousBuild(@TempDir Path tempDir) throws IOException {
+        Path dataFolder = tempDir.resolve("data");
+        Files.createDirectories(dataFolder.resolve("models/item"));
+        Files.createDirectories(dataFolder.resolve("textures/item"));
+        Files.writeString(dataFolder.resolve("models/item/cube.geo.json"), """
+                {"format_version":"1.12.0","minecraft:geometry":[{
+                  "description":{"identifier":"geometry.cube","texture_width":32,"texture_height":32},
+                  "bones":[]}]}
+                """);
+        BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", dataFolder.resolve("textures/item/cube.png").toFile());
+        List<CustomItem> items = List.of(new CustomItem("cube", "Cube", "STICK", 1, List.of(),
+                new BlockbenchModel("models/item/cube.geo.json", "textures/item/cube.png", 1.0), ItemStats.EMPTY));
+        Logger logger = Logger.getLogger("test.textures");
+        List<String> warnings = new ArrayList<>();
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.WARNING) {
+                    warnings.add(record.getMessage());
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        ResourcePackBuilder builder = new ResourcePackBuilder(dataFolder, logger, new CustomItemRegistry(), new CustomMobRegistry());
+        Path destination = tempDir.resolve("pack.zip");
+
+        BuildResult first = builder.build(destination, items, List.of(), BuildListener.NONE);
+        BuildResult second = builder.build(destination, items, List.of(), BuildListener.NONE);
+
+        assertEquals(second.entries(), second.reused());
+        assertEquals(2, warnings.stream().filter(warning -> warning.contains("misaligned")).count(), warnings.toString());
+        assertEquals(first.savings(), second.savings());
+        assertEquals(first.savingsReport(), second.savingsReport());
+        if (second.savingsReport() != null) {
+            assertTrue(Files.readString(second.savingsReport()).contains("assets/nobleitems/textures/item/cube.png"));
+        }
+    }
+}